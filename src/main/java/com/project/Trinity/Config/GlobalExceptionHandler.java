@@ -1,5 +1,6 @@
 package com.project.Trinity.Config;
 import com.project.Trinity.Service.UsernameAlreadyExistsException;
+import com.project.Trinity.Service.ImageProcessingBusyException;
 import com.project.Trinity.Service.InvalidRefreshTokenException;
 
 import org.springframework.http.HttpStatus;
@@ -20,6 +21,10 @@ public class GlobalExceptionHandler {
 	public ResponseEntity<String> handleInvalidRefreshToken(InvalidRefreshTokenException ex) {
 	    return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
 	}//Refresh token ile yeni bir access token alınmaya çalışıldığında hata olursa, istemciye neden başarısız olduğunu bildirir.
+    @ExceptionHandler(ImageProcessingBusyException.class)
+    public ResponseEntity<String> handleImageProcessingBusy(ImageProcessingBusyException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }//Resim işleme havuzu doluyken istek bekletilmez; istemci daha sonra tekrar dener.
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<String> handleAccessDenied(AccessDeniedException ex) {
         return new ResponseEntity<>("Erişim reddedildi", HttpStatus.FORBIDDEN);
@@ -0,0 +1,44 @@
+package com.project.Trinity.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.JdbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Varsayılan JdbcTemplate'e ek olarak büyük sonuçları cursor ile okuyan akışlı bir JdbcTemplate tanımlar.
+ * İkinci bir JdbcTemplate bean'i Spring Boot'un otomatik tanımını devre dışı bıraktığı için varsayılan olan burada
+ * (spring.jdbc.template.* ayarlarıyla) yeniden tanımlanır ve @Primary işaretlenir.
+ */
+@Configuration
+@EnableConfigurationProperties(JdbcProperties.class)
+public class JdbcConfig {
+
+    public static final String STREAMING_JDBC_TEMPLATE = "streamingJdbcTemplate";
+
+    @Bean
+    @Primary
+    public JdbcTemplate jdbcTemplate(DataSource dataSource, JdbcProperties properties) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        JdbcProperties.Template template = properties.getTemplate();
+        jdbcTemplate.setFetchSize(template.getFetchSize());
+        jdbcTemplate.setMaxRows(template.getMaxRows());
+        if (template.getQueryTimeout() != null) {
+            jdbcTemplate.setQueryTimeout((int) template.getQueryTimeout().getSeconds());
+        }
+        return jdbcTemplate;
+    }
+
+    /** PostgreSQL yalnızca transaction içinde (autocommit kapalı) fetch size'a göre parça parça okur; çağıran @Transactional olmalıdır. */
+    @Bean(STREAMING_JDBC_TEMPLATE)
+    public JdbcTemplate streamingJdbcTemplate(DataSource dataSource, @Value("${jdbc.streaming.fetch-size:500}") int fetchSize) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        return jdbcTemplate;
+    }
+}
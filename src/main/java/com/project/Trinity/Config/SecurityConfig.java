@@ -4,8 +4,10 @@ package com.project.Trinity.Config;
 import com.project.Trinity.Filter.JwtAuthenticationFilter;
 import com.project.Trinity.Filter.JwtAuthorizationFilter;
 import com.project.Trinity.Service.RefreshTokenService;
+import com.project.Trinity.Service.TokenRevocationService;
 import com.project.Trinity.Service.UserService;
 import com.project.Trinity.Util.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -30,12 +32,18 @@ public class SecurityConfig {
     private final UserService userService;//Kullanıcı bilgilerini yüklemek için.
     private final JwtUtil jwtUtil;//JWT oluşturma ve doğrulama için
     private final PasswordEncoder passwordEncoder;//Şifre doğrulama için.
+    private final TokenRevocationService tokenRevocationService;//Durumsuz modda iptal edilen token'ları reddetmek için.
 //Bu bağımlılıklar, kimlik doğrulama ve yetkilendirme için gerekli.
-    
-    public SecurityConfig(UserService userService, JwtUtil jwtUtil, PasswordEncoder passwordEncoder) {
+
+    @Value("${jwt.stateless-authorization:false}")
+    private boolean statelessAuthorization;
+
+    public SecurityConfig(UserService userService, JwtUtil jwtUtil, PasswordEncoder passwordEncoder,
+                          TokenRevocationService tokenRevocationService) {
         this.userService = userService;
         this.jwtUtil = jwtUtil;
         this.passwordEncoder = passwordEncoder;
+        this.tokenRevocationService = tokenRevocationService;
     }//Constructor injection ile bağımlılıkları enjekte eder.
 
     @Bean
@@ -60,7 +68,7 @@ public class SecurityConfig {
 
     @Bean
     public JwtAuthorizationFilter jwtAuthorizationFilter() {
-        return new JwtAuthorizationFilter(jwtUtil, userService);//Her istekte JWT’yi doğrulamak için. Yetkili endpoint’lere erişimi kontrol eder.
+        return new JwtAuthorizationFilter(jwtUtil, userService, tokenRevocationService, statelessAuthorization);//Her istekte JWT’yi doğrulamak için. Yetkili endpoint’lere erişimi kontrol eder.
     }
 
     @Bean
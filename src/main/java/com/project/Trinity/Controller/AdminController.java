@@ -1,23 +1,33 @@
 package com.project.Trinity.Controller;
 
-import com.project.Trinity.Repository.PasswordRepository;
-import com.project.Trinity.Repository.PasswordResetTokenRepository;
+import com.project.Trinity.DTO.AuditEventResponse;
+import com.project.Trinity.DTO.CursorPage;
+import com.project.Trinity.Entity.AuditAction;
+import com.project.Trinity.Repository.AuditEventRepository;
 import com.project.Trinity.Repository.UserRepository;
+import com.project.Trinity.Service.DashboardStats;
+import com.project.Trinity.Service.EmailDispatcher;
 import com.project.Trinity.Service.EmailService;
+import com.project.Trinity.Service.ExpirySweeper;
+import com.project.Trinity.Service.FrozenAccountPurger;
 import com.project.Trinity.Service.PasswordService;
 import com.project.Trinity.Service.RefreshTokenService;
 import com.project.Trinity.Service.UserService;
 import com.project.Trinity.Util.JwtUtil;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -26,13 +36,26 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/admin")
 public class AdminController {
 
+    private static final int DEFAULT_AUDIT_PAGE_SIZE = 50;
+    private static final int MAX_AUDIT_PAGE_SIZE = 200;
+
     @Autowired
     private UserService userService;
-    private final PasswordRepository passwordRepository;
+    private final DashboardStats dashboardStats;
+    private final AuditEventRepository auditEventRepository;
+    private final EmailDispatcher emailDispatcher;
+    private final ExpirySweeper expirySweeper;
+    private final FrozenAccountPurger frozenAccountPurger;
     
     
-    public AdminController(PasswordRepository passwordRepository) {
-    		this.passwordRepository = passwordRepository;
+    public AdminController(DashboardStats dashboardStats, AuditEventRepository auditEventRepository,
+                           EmailDispatcher emailDispatcher, ExpirySweeper expirySweeper,
+                           FrozenAccountPurger frozenAccountPurger) {
+    		this.dashboardStats = dashboardStats;
+    		this.auditEventRepository = auditEventRepository;
+    		this.emailDispatcher = emailDispatcher;
+    		this.expirySweeper = expirySweeper;
+    		this.frozenAccountPurger = frozenAccountPurger;
     }
     
     @GetMapping("/dashboard")
@@ -46,15 +69,42 @@ public class AdminController {
         data.put("recentActions", userService.getRecentActions());
         data.put("featuredPasswords", userService.getFeaturedPasswords(username));
 
-        // Kategorilere göre şifre dağılımı
-        List<Object[]> categoryStats = passwordRepository.findPasswordCountByCategory();
-        Map<String, Integer> categoryDistribution = categoryStats.stream()
-                .collect(Collectors.toMap(
-                        stat -> (String) stat[0],
-                        stat -> ((Long) stat[1]).intValue()
-                ));
-        data.put("categoryDistribution", categoryDistribution);
+        // Kategorilere göre şifre dağılımı (bellekteki anlık görüntüden)
+        data.put("categoryDistribution", dashboardStats.getCategoryDistribution());
+        data.put("mailQueue", emailDispatcher.getStats());
+        data.put("cleanup", expirySweeper.getStats());
+        data.put("frozenAccountPurge", frozenAccountPurger.getStats());
 
         return ResponseEntity.ok(data);
     }
-}
\ No newline at end of file
+
+    // Denetim olayları, yeniden eskiye keyset sayfalama; imleç son kaydın (zaman, id) çiftidir. to hariçtir.
+    @GetMapping("/audit-events")
+    public ResponseEntity<CursorPage<AuditEventResponse>> getAuditEvents(
+            @RequestParam(required = false) String actor,
+            @RequestParam(required = false) AuditAction action,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        int pageSize = size > 0 ? Math.min(size, MAX_AUDIT_PAGE_SIZE) : DEFAULT_AUDIT_PAGE_SIZE;
+        LocalDateTime beforeOccurredAt = null;
+        Long beforeId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = CursorPage.decodeCursorValue(cursor).split("\\|", 2);
+            try {
+                beforeOccurredAt = LocalDateTime.parse(parts[0]);
+                beforeId = Long.parseLong(parts[1]);
+            } catch (DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Geçersiz sayfa imleci: " + cursor);
+            }
+        }
+        List<AuditEventResponse> page = auditEventRepository.findPage(actor, action, from, to, beforeOccurredAt, beforeId, pageSize);
+        String nextCursor = null;
+        if (page.size() == pageSize) {
+            AuditEventResponse last = page.get(page.size() - 1);
+            nextCursor = CursorPage.encodeCursor(last.getOccurredAt() + "|" + last.getId());
+        }
+        return ResponseEntity.ok(new CursorPage<>(page, nextCursor));
+    }
+}
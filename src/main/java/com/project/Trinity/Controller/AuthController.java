@@ -3,16 +3,18 @@ package com.project.Trinity.Controller;
 
 import com.project.Trinity.Service.RefreshTokenService;
 import com.project.Trinity.Entity.Password;
-import com.project.Trinity.Entity.PasswordResetToken;
 import com.project.Trinity.Entity.User;
+import com.project.Trinity.Entity.VerificationCode;
+import com.project.Trinity.Entity.VerificationPurpose;
 import com.project.Trinity.Repository.PasswordRepository;
-import com.project.Trinity.Repository.PasswordResetTokenRepository;
 import com.project.Trinity.Repository.UserRepository;
 import com.project.Trinity.Service.EmailService;
 import com.project.Trinity.Service.InvalidRefreshTokenException;
 import com.project.Trinity.Service.PasswordService;
+import com.project.Trinity.Service.UserDetailsCache;
 import com.project.Trinity.Service.UserService;
 import com.project.Trinity.Service.UsernameAlreadyExistsException;
+import com.project.Trinity.Service.VerificationCodeService;
 import com.project.Trinity.Util.JwtUtil;
 
 import jakarta.validation.constraints.NotBlank;
@@ -35,13 +37,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import jakarta.mail.MessagingException;
 import jakarta.validation.Valid;
 @RestController
 @RequestMapping("/api/auth")
@@ -53,24 +53,27 @@ public class AuthController {//Kullanıcı kaydı, girişi ve refresh token işl
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
     private final UserRepository userRepository;
-    private final PasswordResetTokenRepository tokenRepository;
+    private final VerificationCodeService verificationCodeService;
     private final EmailService emailService;
     private final PasswordRepository passwordRepository;
     private final PasswordService passwordService; // Yeni bağımlılık
+    private final UserDetailsCache userDetailsCache;
 
     public AuthController(UserService userService, RefreshTokenService refreshTokenService,
                           AuthenticationManager authenticationManager, JwtUtil jwtUtil, UserRepository userRepository,
-                          PasswordResetTokenRepository tokenRepository, EmailService emailService,
-                          PasswordRepository passwordRepository, PasswordService passwordService) {
+                          VerificationCodeService verificationCodeService, EmailService emailService,
+                          PasswordRepository passwordRepository, PasswordService passwordService,
+                          UserDetailsCache userDetailsCache) {
         this.userService = userService;
         this.refreshTokenService = refreshTokenService;
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
         this.userRepository = userRepository;
-        this.tokenRepository = tokenRepository;
+        this.verificationCodeService = verificationCodeService;
         this.emailService = emailService;
         this.passwordRepository = passwordRepository;
         this.passwordService = passwordService;
+        this.userDetailsCache = userDetailsCache;
     }
     @PostMapping("/register")
     public ResponseEntity<String> register(@Valid @RequestBody RegisterRequest request) {
@@ -164,7 +167,7 @@ public class AuthController {//Kullanıcı kaydı, girişi ve refresh token işl
             }
 
             // Görüntülenme sayısını artır
-            passwordService.incrementViewCount(id);
+            passwordService.incrementViewCount(id, user.getId());
 
             String decryptedPassword = passwordService.getDecryptedPassword(id);
             logger.info("Şifre JSON olarak döndürülüyor, ID: {}, Değer: [GİZLENDİ]", id);
@@ -241,21 +244,19 @@ public class AuthController {//Kullanıcı kaydı, girişi ve refresh token işl
                         .body("Kullanıcı adı alınamadı.");
             }
 
-            User user = userRepository.findByUsername(username)
+            User user = userDetailsCache.findByUsername(username)
                     .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
-            String code = String.format("%06d", new Random().nextInt(999999));
-            LocalDateTime expiryDate = LocalDateTime.now().plusMinutes(15);
-            PasswordResetToken token = new PasswordResetToken(code, user, expiryDate);
-            tokenRepository.save(token);
 
             // Context'e göre uygun e-posta metodunu çağır
             String context = request.getContext() != null ? request.getContext() : "view"; // Varsayılan: view
             switch (context) {
                 case "view":
-                    emailService.sendViewPasswordCodeEmail(user.getEmail(), code);
+                    emailService.sendViewPasswordCodeEmail(user.getEmail(),
+                            verificationCodeService.issue(user.getId(), VerificationPurpose.VIEW_PASSWORD));
                     break;
                 case "update":
-                    emailService.sendUpdatePasswordCodeEmail(user.getEmail(), code);
+                    emailService.sendUpdatePasswordCodeEmail(user.getEmail(),
+                            verificationCodeService.issue(user.getId(), VerificationPurpose.UPDATE_PASSWORD));
                     break;
                 default:
                     return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -263,9 +264,6 @@ public class AuthController {//Kullanıcı kaydı, girişi ve refresh token işl
             }
 
             return ResponseEntity.ok("Doğrulama kodu gönderildi.");
-        } catch (MessagingException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("E-posta gönderimi başarısız: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Doğrulama kodu gönderimi başarısız: " + e.getMessage());
@@ -273,20 +271,37 @@ public class AuthController {//Kullanıcı kaydı, girişi ve refresh token işl
     }
 
     @PostMapping("/user/verify-code")
-    public ResponseEntity<?> verifyCode(@RequestBody VerifyCodeRequest request) {
+    public ResponseEntity<?> verifyCode(@RequestBody VerifyCodeRequest request, Authentication authentication) {
         try {
-            PasswordResetToken resetToken = tokenRepository.findByToken(request.getCode())
+            User user = userDetailsCache.findByUsername(authentication.getName())
+                    .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + authentication.getName()));
+            // Kod yalnızca bu kullanıcının ve istenen amacın koduyla eşleşir; context verilmezse iki amaç da denenir
+            VerificationCode verificationCode = findVerificationCode(user.getId(), request)
                     .orElseThrow(() -> new IllegalArgumentException("Geçersiz doğrulama kodu"));
-            if (resetToken.isExpired()) {
+            if (verificationCode.isExpired()) {
                 throw new IllegalArgumentException("Doğrulama kodu süresi dolmuş");
             }
-            tokenRepository.delete(resetToken);
+            verificationCodeService.consume(verificationCode);
             return ResponseEntity.ok("Doğrulama başarılı.");
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
     }
 
+    private Optional<VerificationCode> findVerificationCode(Long userId, VerifyCodeRequest request) {
+        if ("view".equals(request.getContext())) {
+            return verificationCodeService.find(userId, VerificationPurpose.VIEW_PASSWORD, request.getCode());
+        }
+        if ("update".equals(request.getContext())) {
+            return verificationCodeService.find(userId, VerificationPurpose.UPDATE_PASSWORD, request.getCode());
+        }
+        if (request.getContext() != null) {
+            throw new IllegalArgumentException("Geçersiz context: " + request.getContext());
+        }
+        return verificationCodeService.find(userId, VerificationPurpose.VIEW_PASSWORD, request.getCode())
+                .or(() -> verificationCodeService.find(userId, VerificationPurpose.UPDATE_PASSWORD, request.getCode()));
+    }
+
 }
 //AuthController, kullanıcıyla ilgili temel işlemleri (kayıt, giriş, token yenileme) yönetir. REST API’nin yüzü gibidir.
 // DTO Classes 
@@ -313,6 +328,7 @@ class RegisterRequest {
 class VerifyCodeRequest {
     @NotBlank(message = "Doğrulama kodu zorunludur")
     private String code;
+    private String context; // "view", "update" veya null (ikisi de denenir)
 }
 @Data
 class SendVerificationCodeRequest {
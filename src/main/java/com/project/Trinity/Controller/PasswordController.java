@@ -1,18 +1,40 @@
 package com.project.Trinity.Controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.Trinity.DTO.BulkImportResult;
+import com.project.Trinity.DTO.CursorPage;
+import com.project.Trinity.DTO.PasswordSummary;
 import com.project.Trinity.Entity.Password;
 import com.project.Trinity.Entity.Status;
 import com.project.Trinity.Entity.User;
+import com.project.Trinity.Entity.VerificationCode;
+import com.project.Trinity.Entity.VerificationPurpose;
 import com.project.Trinity.Service.PasswordService;
+import com.project.Trinity.Service.VaultTransferService;
+import com.project.Trinity.Service.VerificationCodeService;
+import com.project.Trinity.Util.CsvWriter;
+import com.project.Trinity.Util.PassphraseCipher;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
 import lombok.Data;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -22,10 +44,22 @@ import java.util.stream.Collectors;
 @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
 public class PasswordController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final String TEXT_CSV = "text/csv";
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     private final PasswordService passwordService;
+    private final VaultTransferService vaultTransferService;
+    private final VerificationCodeService verificationCodeService;
+    private final ObjectMapper objectMapper;
 
-    public PasswordController(PasswordService passwordService) {
+    public PasswordController(PasswordService passwordService, VaultTransferService vaultTransferService,
+                              VerificationCodeService verificationCodeService, ObjectMapper objectMapper) {
         this.passwordService = passwordService;
+        this.vaultTransferService = vaultTransferService;
+        this.verificationCodeService = verificationCodeService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/passwords")
@@ -51,6 +85,112 @@ public class PasswordController {
         return ResponseEntity.ok(passwords);
     }
 
+    // Keyset sayfalama: ilk sayfa için cursor verilmez, sonraki sayfalar için dönen nextCursor kullanılır
+    @GetMapping("/passwords/page")
+    public ResponseEntity<CursorPage<PasswordResponse>> getUserPasswordsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        int pageSize = size > 0 ? Math.min(size, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        List<PasswordSummary> page = passwordService.getUserPasswordsPage(CursorPage.decodeCursor(cursor), pageSize);
+        List<PasswordResponse> items = page.stream()
+                .map(PasswordResponse::new)
+                .collect(Collectors.toList());
+        String nextCursor = page.size() == pageSize ? CursorPage.encodeCursor(page.get(page.size() - 1).getId()) : null;
+        return ResponseEntity.ok(new CursorPage<>(items, nextCursor));
+    }
+
+    // Büyük kasalar için: girdiler DB'den okundukça JSON dizisi olarak yazılır, liste bellekte kurulmaz
+    @GetMapping(value = "/passwords/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUserPasswords() {
+        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Long userId = currentUser.getId();
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                passwordService.streamUserPasswords(userId, summary -> {
+                    try {
+                        generator.writeObject(new PasswordResponse(summary));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Başka şifre yöneticilerinin CSV dışa aktarımları da kabul edilir; gövde parti parti okunur, hatalı satırlar raporlanır
+    @PostMapping(value = "/passwords/import", consumes = TEXT_CSV)
+    public ResponseEntity<BulkImportResult> importPasswords(
+            @RequestParam(required = false) Long categoryId,
+            @RequestHeader(value = "X-Import-Passphrase", required = false) String passphrase,
+            InputStream body) throws IOException {
+        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        PassphraseCipher importCipher = passphrase != null ? new PassphraseCipher(passphrase) : null;
+        BulkImportResult result = vaultTransferService.importCsv(currentUser.getId(),
+                new InputStreamReader(body, StandardCharsets.UTF_8), categoryId, importCipher);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Kasanın tamamı okundukça yazılır. Açık metin şifre içerdiği için e-postayla gönderilen görüntüleme kodu istenir;
+     * X-Export-Passphrase verilirse şifreler bu parolayla şifrelenir ve dosya aynı parolayla geri içe aktarılabilir.
+     */
+    @GetMapping("/passwords/export")
+    public ResponseEntity<StreamingResponseBody> exportPasswords(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestHeader("X-Verification-Code") String code,
+            @RequestHeader(value = "X-Export-Passphrase", required = false) String passphrase) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"csv".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Desteklenmeyen biçim: " + format);
+        }
+        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        Long userId = currentUser.getId();
+        PassphraseCipher exportCipher = passphrase != null ? new PassphraseCipher(passphrase) : null;
+        VerificationCode verificationCode = verificationCodeService.find(userId, VerificationPurpose.VIEW_PASSWORD, code)
+                .orElseThrow(() -> new IllegalArgumentException("Geçersiz doğrulama kodu"));
+        if (verificationCode.isExpired()) {
+            throw new IllegalArgumentException("Doğrulama kodu süresi dolmuş");
+        }
+        verificationCodeService.consume(verificationCode);
+
+        StreamingResponseBody body = outputStream -> {
+            if (ndjson) {
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                    generator.setRootValueSeparator(null);
+                    vaultTransferService.exportVault(userId, exportCipher, entry -> {
+                        try {
+                            generator.writeObject(entry);
+                            generator.writeRaw('\n');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            } else {
+                CsvWriter csv = new CsvWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+                csv.writeRecord("title", "username", "password", "category", "description", "featured");
+                vaultTransferService.exportVault(userId, exportCipher, entry -> {
+                    try {
+                        csv.writeRecord(entry.getTitle(), entry.getUsername(), entry.getPassword(), entry.getCategory(),
+                                entry.getDescription(), String.valueOf(entry.isFeatured()));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                csv.flush();
+            }
+        };
+        String extension = ndjson ? "ndjson" : "csv";
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ndjson ? APPLICATION_NDJSON : TEXT_CSV + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"vault." + extension + "\"")
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+
     @GetMapping("/passwords/by-category")
     public ResponseEntity<List<PasswordResponse>> getPasswordsByCategory(@RequestParam String category) {
         List<PasswordResponse> passwords = passwordService.getPasswordsByCategory(category)
@@ -159,4 +299,15 @@ class PasswordResponse {
         this.status = password.getStatus().getDisplayName();
         this.isFeatured = password.getIsFeatured(); 
     }
+
+    public PasswordResponse(PasswordSummary summary) {
+        this.id = summary.getId();
+        this.categoryId = summary.getCategoryId();
+        this.categoryName = summary.getCategoryName();
+        this.title = summary.getTitle();
+        this.username = summary.getUsername();
+        this.description = summary.getDescription();
+        this.status = summary.getStatus().getDisplayName();
+        this.isFeatured = summary.isFeatured();
+    }
 }
\ No newline at end of file
@@ -1,23 +1,49 @@
 package com.project.Trinity.Controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.Trinity.DTO.BulkImportResult;
+import com.project.Trinity.DTO.CursorPage;
+import com.project.Trinity.DTO.ProfilePictureInfo;
+import com.project.Trinity.Entity.ProfilePictureSize;
+import com.project.Trinity.Entity.Role;
 import com.project.Trinity.Entity.User;
 import com.project.Trinity.Entity.Status;
 import com.project.Trinity.Repository.UserRepository;
+import com.project.Trinity.Service.ProfilePictureService;
+import com.project.Trinity.Service.UserBulkService;
+import com.project.Trinity.Service.UserDetailsCache;
 import com.project.Trinity.Service.UserService;
 import com.project.Trinity.DTO.UserResponse;
+import com.project.Trinity.Util.CsvWriter;
 import jakarta.validation.Valid;
 import lombok.Data;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.util.Base64;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -25,12 +51,28 @@ import java.util.stream.Collectors;
 @PreAuthorize("isAuthenticated()")
 public class UserController {
 
+    private static final String OWN_PICTURE_PATH = "/user/profile-picture";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final String TEXT_CSV = "text/csv";
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     private final UserRepository userRepository;
     private final UserService userService;
+    private final UserDetailsCache userDetailsCache;
+    private final ProfilePictureService profilePictureService;
+    private final UserBulkService userBulkService;
+    private final ObjectMapper objectMapper;
 
-    public UserController(UserRepository userRepository, UserService userService) {
+    public UserController(UserRepository userRepository, UserService userService, UserDetailsCache userDetailsCache,
+                          ProfilePictureService profilePictureService, UserBulkService userBulkService,
+                          ObjectMapper objectMapper) {
         this.userRepository = userRepository;
         this.userService = userService;
+        this.userDetailsCache = userDetailsCache;
+        this.profilePictureService = profilePictureService;
+        this.userBulkService = userBulkService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/user/me")
@@ -43,11 +85,8 @@ public class UserController {
                 .map(Object::toString)
                 .orElse("USER");
 
-        User user = userRepository.findByUsername(username)
+        User user = userDetailsCache.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
-        String profilePictureBase64 = user.getProfilePicture() != null 
-                ? Base64.getEncoder().encodeToString(user.getProfilePicture()) 
-                : null;
         UserInfoResponse response = new UserInfoResponse(
                 user.getId(),
                 user.getUsername(),
@@ -55,27 +94,93 @@ public class UserController {
                 user.getPhone(),
                 role,
                 user.getStatus() != null ? user.getStatus().toString() : "ACTIVE",
-                profilePictureBase64
+                pictureUrl(OWN_PICTURE_PATH, profilePictureService.findInfo(user.getId()).orElse(null))
         );
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/admin/users")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserInfoResponse>> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        List<UserInfoResponse> userResponses = users.stream()
+    // Keyset sayfalama: ilk sayfa için cursor verilmez; q kullanıcı adı veya e-postanın başıyla eşleşir
+    public ResponseEntity<CursorPage<UserInfoResponse>> getAllUsers(
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        int pageSize = size > 0 ? Math.min(size, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        List<UserResponse> page = userService.getUsersPage(status, role, q, CursorPage.decodeCursor(cursor), pageSize);
+        // Resim verisi yerine tek sorguyla yalnızca özetler okunur
+        Map<Long, ProfilePictureInfo> pictures = profilePictureService.findInfo(page.stream().map(UserResponse::getId).toList());
+        List<UserInfoResponse> items = page.stream()
                 .map(user -> new UserInfoResponse(
                         user.getId(),
                         user.getUsername(),
                         user.getEmail(),
                         user.getPhone(),
-                        user.getRole().name(),
-                        user.getStatus() != null ? user.getStatus().toString() : "ACTIVE",
-                        user.getProfilePicture() != null ? Base64.getEncoder().encodeToString(user.getProfilePicture()) : null
+                        user.getRole(),
+                        user.getStatus(),
+                        pictureUrl(adminPicturePath(user.getId()), pictures.get(user.getId()))
                 ))
                 .collect(Collectors.toList());
-        return ResponseEntity.ok(userResponses);
+        String nextCursor = page.size() == pageSize ? CursorPage.encodeCursor(page.get(page.size() - 1).getId()) : null;
+        return ResponseEntity.ok(new CursorPage<>(items, nextCursor));
+    }
+
+    // Gövde istek boyunca parti parti okunur; tüm dosya belleğe alınmaz. Hatalı satırlar atlanır ve raporlanır
+    @PostMapping(value = "/admin/users/import", consumes = {TEXT_CSV, APPLICATION_NDJSON})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportResult> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                        InputStream body) throws IOException {
+        BulkImportResult result;
+        if (MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(APPLICATION_NDJSON))) {
+            result = userBulkService.importNdjson(body);
+        } else {
+            result = userBulkService.importCsv(new InputStreamReader(body, StandardCharsets.UTF_8));
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    // Kullanıcılar DB'den okundukça yazılır; şifre özetleri dışa aktarılmaz
+    @GetMapping("/admin/users/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "csv") String format) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"csv".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Desteklenmeyen biçim: " + format);
+        }
+        StreamingResponseBody body = outputStream -> {
+            if (ndjson) {
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                    generator.setRootValueSeparator(null);
+                    userBulkService.exportUsers(user -> {
+                        try {
+                            generator.writeObject(user);
+                            generator.writeRaw('\n');
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                }
+            } else {
+                CsvWriter csv = new CsvWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+                csv.writeRecord("id", "username", "email", "phone", "status", "role");
+                userBulkService.exportUsers(user -> {
+                    try {
+                        csv.writeRecord(String.valueOf(user.getId()), user.getUsername(), user.getEmail(),
+                                user.getPhone(), user.getStatus(), user.getRole());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                csv.flush();
+            }
+        };
+        String extension = ndjson ? "ndjson" : "csv";
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(ndjson ? APPLICATION_NDJSON : TEXT_CSV + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + extension + "\"")
+                .body(body);
     }
 
     @PutMapping("/admin/users/{id}")
@@ -92,9 +197,6 @@ public class UserController {
         );
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + id));
-        String profilePictureBase64 = user.getProfilePicture() != null 
-                ? Base64.getEncoder().encodeToString(user.getProfilePicture()) 
-                : null;
         UserInfoResponse response = new UserInfoResponse(
                 user.getId(),
                 userResponse.getUsername(),
@@ -102,7 +204,7 @@ public class UserController {
                 userResponse.getPhone(),
                 user.getRole().name(),
                 request.getStatus() != null ? request.getStatus() : user.getStatus().toString(),
-                		profilePictureBase64
+                pictureUrl(adminPicturePath(user.getId()), profilePictureService.findInfo(user.getId()).orElse(null))
         );
         return ResponseEntity.ok(response);
     }
@@ -138,13 +240,9 @@ public class UserController {
             );
 
             // Yeni kullanıcıyı DB'den çek
-            User user = userRepository.findByUsername(userResponse.getUsername())
+            User user = userDetailsCache.findByUsername(userResponse.getUsername())
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + userResponse.getUsername()));
 
-            String profilePictureBase64 = user.getProfilePicture() != null
-                ? Base64.getEncoder().encodeToString(user.getProfilePicture())
-                : null;
-
             UserInfoResponse response = new UserInfoResponse(
                 user.getId(),
                 userResponse.getUsername(),
@@ -152,7 +250,7 @@ public class UserController {
                 userResponse.getPhone(),
                 user.getRole().name(),
                 user.getStatus().toString(),
-                profilePictureBase64
+                null // Yeni kullanıcının profil resmi yok
             );
 
             return ResponseEntity.ok(response);
@@ -165,15 +263,73 @@ public class UserController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<String> uploadProfilePicture(@RequestParam("file") MultipartFile file, Authentication authentication) throws IOException {
         String username = authentication.getName();
-        userService.uploadProfilePicture(username, file.getBytes());
+        userService.uploadProfilePicture(username, file);
         return ResponseEntity.ok("Profil resmi başarıyla yüklendi.");
     }
+
+    @GetMapping(OWN_PICTURE_PATH)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Resource> getProfilePicture(@RequestParam(defaultValue = "medium") String size,
+                                                      Authentication authentication, WebRequest webRequest) {
+        String username = authentication.getName();
+        User user = userDetailsCache.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
+        return servePicture(user.getId(), parseSize(size), webRequest);
+    }
+
+    @GetMapping("/admin/users/{id}/profile-picture")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Resource> getUserProfilePicture(@PathVariable Long id, @RequestParam(defaultValue = "medium") String size,
+                                                          WebRequest webRequest) {
+        return servePicture(id, parseSize(size), webRequest);
+    }
+
+    /**
+     * Koşullu istek önce yalnızca meta veriyle değerlendirilir; eşleşirse resim verisi okunmadan 304 döner.
+     * Resource gövdesi için Spring Range başlığını kendisi işler (206, Accept-Ranges); gövde Base64'e çevrilmeden yazılır.
+     */
+    private ResponseEntity<Resource> servePicture(Long userId, ProfilePictureSize size, WebRequest webRequest) {
+        ProfilePictureInfo info = profilePictureService.findInfo(userId).orElse(null);
+        if (info == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = "\"" + info.getContentHash() + "-" + size.name().toLowerCase(Locale.ROOT) + "\"";
+        long lastModified = info.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return null; // 304 yanıtı ve başlıkları checkNotModified tarafından yazıldı
+        }
+        return profilePictureService.loadData(userId, size)
+                .map(data -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType(info.getContentType()))
+                        .eTag(etag)
+                        .lastModified(lastModified)
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .<Resource>body(new ByteArrayResource(data)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private static ProfilePictureSize parseSize(String size) {
+        try {
+            return ProfilePictureSize.valueOf(size.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Geçersiz resim boyutu: " + size);
+        }
+    }
+
+    // İçerik özeti URL'de yer aldığından resim değiştiğinde istemci yeni adresi ister
+    private static String pictureUrl(String path, ProfilePictureInfo info) {
+        return info != null ? "/api" + path + "?v=" + info.getContentHash().substring(0, 12) : null;
+    }
+
+    private static String adminPicturePath(Long userId) {
+        return "/admin/users/" + userId + "/profile-picture";
+    }
  // Yeni Endpoint: Kullanıcı kendi bilgilerini günceller
     @PutMapping("/user/update")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<UserInfoResponse> updateCurrentUser(@Valid @RequestBody UserUpdateRequest request, Authentication authentication) {
         String username = authentication.getName();
-        User user = userRepository.findByUsername(username)
+        User user = userDetailsCache.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
 
         UserResponse userResponse = userService.updateUser(
@@ -186,9 +342,6 @@ public class UserController {
                 user.getRole().name() // Mevcut rolü koru
         );
 
-        String profilePictureBase64 = user.getProfilePicture() != null 
-                ? Base64.getEncoder().encodeToString(user.getProfilePicture()) 
-                : null;
         UserInfoResponse response = new UserInfoResponse(
                 user.getId(),
                 userResponse.getUsername(),
@@ -196,7 +349,7 @@ public class UserController {
                 userResponse.getPhone(),
                 user.getRole().name(),
                 user.getStatus().toString(),
-                profilePictureBase64
+                pictureUrl(OWN_PICTURE_PATH, profilePictureService.findInfo(user.getId()).orElse(null))
         );
         return ResponseEntity.ok(response);
     }
@@ -219,16 +372,16 @@ public class UserController {
         private String phone;
         private String role;
         private String status;
-        private String profilePicture;
+        private String profilePictureUrl; // Resim yoksa null; resim ayrı uçtan (ETag/Range destekli) alınır, küçük boyut için &size=small
 
-        public UserInfoResponse(Long id, String username, String email, String phone, String role, String status,String profilePicture) {
+        public UserInfoResponse(Long id, String username, String email, String phone, String role, String status, String profilePictureUrl) {
             this.id = id;
             this.username = username;
             this.email = email;
             this.phone = phone;
             this.role = role;
             this.status = status;
-            this.profilePicture = profilePicture;
+            this.profilePictureUrl = profilePictureUrl;
         }
     }
 
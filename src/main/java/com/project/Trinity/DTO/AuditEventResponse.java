@@ -0,0 +1,18 @@
+package com.project.Trinity.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class AuditEventResponse {
+    private Long id;
+    private LocalDateTime occurredAt;
+    private String actor; // İşlemi yapan kullanıcı; sistem işlemlerinde null
+    private String action;
+    private Long targetId;
+    private String ipAddress;
+    private String details;
+}
@@ -0,0 +1,35 @@
+package com.project.Trinity.DTO;
+
+import com.project.Trinity.Entity.Status;
+import lombok.Data;
+
+@Data
+public class PasswordSummary {//Listeleme uçlarının ihtiyaç duyduğu kolonlar; şifreli değer ve kullanıcı ilişkisi yüklenmez.
+    private Long id;
+    private Long categoryId;
+    private String categoryName;
+    private String title;
+    private String username;
+    private String description;
+    private Status status;
+    private boolean featured;
+    private long viewCount; // Yalnızca en çok görüntülenenler sorgusunda doldurulur
+
+    public PasswordSummary(Long id, Long categoryId, String categoryName, String title, String username,
+                           String description, Status status, boolean featured) {
+        this.id = id;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.title = title;
+        this.username = username;
+        this.description = description;
+        this.status = status;
+        this.featured = featured;
+    }
+
+    public PasswordSummary(Long id, Long categoryId, String categoryName, String title, String username,
+                           String description, Status status, boolean featured, long viewCount) {
+        this(id, categoryId, categoryName, title, username, description, status, featured);
+        this.viewCount = viewCount;
+    }
+}
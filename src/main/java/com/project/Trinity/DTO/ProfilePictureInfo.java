@@ -0,0 +1,16 @@
+package com.project.Trinity.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ProfilePictureInfo {//Koşullu istekler (ETag/Last-Modified) ve URL üretimi için resim verisi olmadan meta bilgiler.
+    private Long userId;
+    private String contentHash;
+    private String contentType;
+    private long sizeBytes;
+    private LocalDateTime updatedAt;
+}
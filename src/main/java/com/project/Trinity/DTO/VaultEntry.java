@@ -0,0 +1,15 @@
+package com.project.Trinity.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class VaultEntry {//Kasa dışa aktarımında bir satır; password çözülmüş ya da dışa aktarma parolasıyla şifrelenmiş değerdir.
+    private String title;
+    private String username;
+    private String password;
+    private String category;
+    private String description;
+    private boolean featured;
+}
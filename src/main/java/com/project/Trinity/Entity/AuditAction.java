@@ -0,0 +1,13 @@
+package com.project.Trinity.Entity;
+
+public enum AuditAction {
+    USER_CREATED,
+    USERS_IMPORTED, // Toplu içe aktarmada parti başına tek özet kayıt
+    USER_UPDATED,
+    USER_DELETED,
+    USER_REACTIVATED,
+    ACCOUNT_FROZEN,
+    PROFILE_PICTURE_UPDATED,
+    PASSWORD_RESET,
+    LEGACY // Eski audit_log tablosundan taşınan serbest metin kayıtlar
+}
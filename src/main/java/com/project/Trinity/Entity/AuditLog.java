@@ -1,27 +0,0 @@
-package com.project.Trinity.Entity;
-
-import jakarta.persistence.Entity;
-import jakarta.persistence.Id;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import java.time.LocalDateTime;
-
-@Entity
-public class AuditLog {
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-    private String admin;
-    private String action; // İşlem açıklaması, örneğin "Kullanıcı eklendi"
-    private LocalDateTime timestamp; // İşlemin zamanı
-
-    // Getter ve Setter'lar
-    public Long getId() { return id; }
-    public void setId(Long id) { this.id = id; }
-    public String getAdmin() { return admin; }
-    public void setAdmin(String admin) { this.admin = admin; }
-    public String getAction() { return action; }
-    public void setAction(String action) { this.action = action; }
-    public LocalDateTime getTimestamp() { return timestamp; }
-    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
-}
\ No newline at end of file
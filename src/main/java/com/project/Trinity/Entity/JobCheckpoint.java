@@ -0,0 +1,35 @@
+package com.project.Trinity.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {//Uzun süren arka plan işlerinin kaldığı yeri saklar; yeniden başlatmada iş baştan başlamaz.
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(name = "last_id", nullable = false)
+    private long lastId = 0;
+
+    @Column(name = "target", length = 100)
+    private String target; // İşin hedefi, ör. yeniden şifrelemede hedef anahtar kimliği
+
+    @Column(nullable = false)
+    private boolean completed = false;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public JobCheckpoint() {
+    }
+
+    public JobCheckpoint(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,8 @@
+package com.project.Trinity.Entity;
+
+public enum OutboxStatus {
+    PENDING,  // Gönderilmeyi bekliyor (ilk deneme veya yeniden deneme)
+    SENDING,  // Bir worker tarafından alındı; kiralama süresi dolarsa yeniden denenir
+    SENT,
+    FAILED    // Azami deneme sayısına ulaşıldı
+}
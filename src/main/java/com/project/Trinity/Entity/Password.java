@@ -2,6 +2,7 @@ package com.project.Trinity.Entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.stream.Stream;
@@ -12,7 +13,11 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import com.project.Trinity.Util.EncryptionUtil;
 
 @Entity
-@Table(name = "passwords")
+@DynamicUpdate // Yalnızca değişen kolonlar yazılır; arabellekten eklenen view_count eski değerle ezilmez
+@Table(name = "passwords", indexes = {
+        @Index(name = "idx_passwords_created_by_status_id", columnList = "created_by, status, id"),
+        @Index(name = "idx_passwords_user_status_view_count", columnList = "user_id, status, view_count DESC")
+})
 @Data
 public class Password {
 
@@ -20,7 +25,7 @@ public class Password {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
@@ -40,8 +45,8 @@ public class Password {
     @Column(name = "is_featured", columnDefinition = "boolean default false") // Yeni eklenen alan
     private boolean isFeatured = false;
     
-    @Column(nullable = false, length = 60)
-    private String password; // Bcrypt hash'i saklanacak
+    @Column(nullable = false, length = 512)
+    private String password; // Sürümlü AES-GCM zarfı (bkz. EncryptionUtil)
     
     @Column(length = 500)
     private String description;
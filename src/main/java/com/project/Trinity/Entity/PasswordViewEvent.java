@@ -0,0 +1,32 @@
+package com.project.Trinity.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "password_view_events", indexes = {
+        @Index(name = "idx_password_view_events_user_viewed_at", columnList = "user_id, viewed_at"),
+        @Index(name = "idx_password_view_events_viewed_at", columnList = "viewed_at") // Saklama süresi temizliği için
+})
+public class PasswordViewEvent {//Yalnızca eklenen görüntülenme kayıtları; ViewCountBuffer her flush'ta şifre başına bir satır yazar.
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // İlişki yerine düz kolonlar: ekleme sırasında şifre/kullanıcı yüklenmez
+    @Column(name = "password_id", nullable = false)
+    private Long passwordId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "viewed_at", nullable = false)
+    private LocalDateTime viewedAt;
+
+    @Column(nullable = false)
+    private long views; // Bu kayıtta toplanan görüntülenme sayısı
+}
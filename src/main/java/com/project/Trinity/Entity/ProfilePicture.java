@@ -0,0 +1,38 @@
+package com.project.Trinity.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "profile_pictures")
+public class ProfilePicture {//Profil resimleri users satırından ayrı tutulur; kimlik doğrulama ve listeleme resmi yüklemez.
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash; // SHA-256 (hex); ETag olarak kullanılır
+
+    @Column(name = "content_type", nullable = false, length = 50)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes; // MEDIUM varyantın boyutu
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Yalnızca resmin kendisi istendiğinde okunur; meta veri sorguları bu kolonları seçmez
+    @Column(nullable = false, columnDefinition = "BYTEA")
+    private byte[] data; // MEDIUM varyant
+
+    @Column(columnDefinition = "BYTEA")
+    private byte[] thumbnail; // SMALL varyant; null ise satır henüz normalize edilmemiş eski bir yüklemedir
+
+    public ProfilePicture() {
+    }
+}
@@ -0,0 +1,16 @@
+package com.project.Trinity.Entity;
+
+public enum ProfilePictureSize {//Saklanan sabit boyutlu kare varyantlar; yüklenen özgün resim saklanmaz.
+    SMALL(64),   // Listeler ve küçük avatarlar
+    MEDIUM(256); // Profil sayfası
+
+    private final int pixels;
+
+    ProfilePictureSize(int pixels) {
+        this.pixels = pixels;
+    }
+
+    public int getPixels() {
+        return pixels;
+    }
+}
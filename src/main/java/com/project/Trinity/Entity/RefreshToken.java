@@ -7,17 +7,21 @@ import lombok.Data;
 import java.time.LocalDateTime;
 @Data
 @Entity
-@Table(name = "refresh_token")
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_expiry_date", columnList = "expiry_date"),
+        @Index(name = "idx_refresh_token_user_id", columnList = "user_id")
+}) // Kullanıcı başına birden fazla token olabilir; sınır RefreshTokenService'te uygulanır
 public class RefreshToken {//Refresh token’ları veritabanında saklamak için varlık sınıfı.
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true, length = 255)
-    private String token;
+    // Ham token saklanmaz; yalnızca SHA-256 özeti (hex) tutulur
+    @Column(name = "token_hash", unique = true, length = 64)
+    private String tokenHash;
 
-    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.REMOVE)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     private User user;
 
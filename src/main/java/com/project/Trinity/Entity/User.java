@@ -12,7 +12,11 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_status_frozen_at_id", columnList = "status, frozen_at, id"), // Dondurulmuş hesap silme adayları
+        @Index(name = "idx_users_status_id", columnList = "status, id"), // Admin listesi filtreleri (keyset)
+        @Index(name = "idx_users_role_id", columnList = "role, id")
+})
 public class User implements UserDetails {
 
     @Id
@@ -37,9 +41,8 @@ public class User implements UserDetails {
     @Enumerated(EnumType.STRING)
     @Column(columnDefinition = "VARCHAR(20) DEFAULT 'ACTIVE'")
     private Status status = Status.ACTIVE; // Yeni eklenen alan
-    
-    @Column(columnDefinition = "BYTEA")
-    private byte[] profilePicture; // Profil resmi için byte dizisi
+
+    // Profil resmi profile_pictures tablosunda (ProfilePictureService); kullanıcı satırıyla birlikte yüklenmez
 
     @Column(name = "frozen_at")
     private LocalDateTime frozenAt;
@@ -0,0 +1,47 @@
+package com.project.Trinity.Entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "verification_codes", indexes = {
+        @Index(name = "uk_verification_codes_code_hash", columnList = "code_hash", unique = true),
+        @Index(name = "uk_verification_codes_user_purpose", columnList = "user_id, purpose", unique = true),
+        @Index(name = "idx_verification_codes_expires_at", columnList = "expires_at")
+})
+public class VerificationCode {//Kodun kendisi saklanmaz; amaç ve kullanıcıyla birlikte HMAC özeti tutulur, arama benzersiz indeksle yapılır.
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private VerificationPurpose purpose;
+
+    @Column(name = "code_hash", nullable = false, length = 64)
+    private String codeHash;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    public VerificationCode() {
+    }
+
+    public VerificationCode(Long userId, VerificationPurpose purpose, String codeHash, LocalDateTime expiresAt) {
+        this.userId = userId;
+        this.purpose = purpose;
+        this.codeHash = codeHash;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired() {
+        return LocalDateTime.now().isAfter(expiresAt);
+    }
+}
@@ -0,0 +1,7 @@
+package com.project.Trinity.Entity;
+
+public enum VerificationPurpose {
+    RESET_PASSWORD,   // Oturum açmadan kullanılır; kod tüm kullanıcılar arasında benzersiz olmalı
+    VIEW_PASSWORD,
+    UPDATE_PASSWORD
+}
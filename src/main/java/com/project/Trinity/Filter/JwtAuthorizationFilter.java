@@ -1,14 +1,21 @@
 
 package com.project.Trinity.Filter;
 
+import com.project.Trinity.Entity.Role;
+import com.project.Trinity.Entity.Status;
+import com.project.Trinity.Entity.User;
+import com.project.Trinity.Service.TokenRevocationService;
 import com.project.Trinity.Service.UserService;
 import com.project.Trinity.Util.JwtUtil;
+import com.project.Trinity.Util.VerifiedToken;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -25,10 +32,15 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthorizationFilter.class);
     private final JwtUtil jwtUtil;
     private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
+    private final boolean statelessAuthorization;//true ise kullanıcı her istekte DB'den yüklenmez, token claim'leri kullanılır.
 
-    public JwtAuthorizationFilter(JwtUtil jwtUtil, UserService userService) {
+    public JwtAuthorizationFilter(JwtUtil jwtUtil, UserService userService, TokenRevocationService tokenRevocationService,
+                                  @Value("${jwt.stateless-authorization:false}") boolean statelessAuthorization) {
         this.jwtUtil = jwtUtil;
         this.userService = userService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.statelessAuthorization = statelessAuthorization;
     }
     
 
@@ -57,12 +69,22 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
-        final String username = jwtUtil.extractUsername(jwt);
+        final VerifiedToken token;
+        try {
+            token = jwtUtil.validateToken(jwt);//İmza ve süre kontrolü tek parse ile yapılır.
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.warn("Invalid JWT token for request {}: {}", requestURI, e.getMessage());
+            filterChain.doFilter(request, response);
+            return;
+        }
+        final String username = token.getSubject();
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService.loadUserByUsername(username);
+            UserDetails userDetails = statelessAuthorization && token.getUserId() != null
+                    ? userFromClaims(token)
+                    : userService.loadUserByUsername(username);
 
-            if (jwtUtil.isTokenValid(jwt, userDetails)) {
+            if (userDetails != null && username.equals(userDetails.getUsername())) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -76,4 +98,23 @@ public class JwtAuthorizationFilter extends OncePerRequestFilter {
             }
         }
         filterChain.doFilter(request, response);
-    }}
\ No newline at end of file
+    }
+
+    // Token claim'lerinden veritabanına gitmeden principal oluşturur; iptal edilmiş veya aktif olmayan kullanıcılar için null döner.
+    private User userFromClaims(VerifiedToken token) {
+        if (tokenRevocationService.isRevoked(token.getUserId(), token.getIssuedAtMillis())) {
+            logger.warn("Revoked JWT token for user: {}", token.getSubject());
+            return null;
+        }
+        if (token.getRole() == null || !Status.ACTIVE.name().equals(token.getStatus())) {
+            logger.warn("JWT token without active status for user: {}", token.getSubject());
+            return null;
+        }
+        User user = new User();
+        user.setId(token.getUserId());
+        user.setUsername(token.getSubject());
+        user.setRole(Role.valueOf(token.getRole()));
+        user.setStatus(Status.ACTIVE);
+        return user;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.project.Trinity.Repository;
+
+import com.project.Trinity.DTO.AuditEventResponse;
+import com.project.Trinity.Entity.AuditAction;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * audit_events zamana göre bölümlenmiş (partitioned) bir tablodur ve JPA tarafından yönetilmez; şeması schema.sql'de,
+ * aylık bölümleri AuditPartitionManager'dadır. Sorgular occurred_at üzerinden bölüm budaması (partition pruning) yapar.
+ */
+@Repository
+public class AuditEventRepository {
+
+    private static final String SELECT =
+            "SELECT id, occurred_at, actor, action, target_id, ip_address, details FROM audit_events ";
+
+    private static final RowMapper<AuditEventResponse> ROW_MAPPER = (rs, rowNum) -> new AuditEventResponse(
+            rs.getLong("id"),
+            rs.getTimestamp("occurred_at").toLocalDateTime(),
+            rs.getString("actor"),
+            rs.getString("action"),
+            rs.getObject("target_id", Long.class),
+            rs.getString("ip_address"),
+            rs.getString("details"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditEventRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Yeniden eskiye keyset sayfalama; (beforeOccurredAt, beforeId) önceki sayfanın son kaydıdır, ilk sayfa için null.
+     * Filtreler isteğe bağlıdır; (occurred_at DESC, id DESC) sırası indekslerle karşılanır.
+     */
+    public List<AuditEventResponse> findPage(String actor, AuditAction action, LocalDateTime from, LocalDateTime to,
+                                             LocalDateTime beforeOccurredAt, Long beforeId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT).append("WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (actor != null) {
+            sql.append(" AND actor = ?");
+            args.add(actor);
+        }
+        if (action != null) {
+            sql.append(" AND action = ?");
+            args.add(action.name());
+        }
+        if (from != null) {
+            sql.append(" AND occurred_at >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND occurred_at < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        if (beforeOccurredAt != null && beforeId != null) {
+            sql.append(" AND (occurred_at, id) < (?, ?)");
+            args.add(Timestamp.valueOf(beforeOccurredAt));
+            args.add(beforeId);
+        }
+        sql.append(" ORDER BY occurred_at DESC, id DESC LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    // Panel için son kayıtlar; yalnızca en yeni bölümler okunur
+    public List<AuditEventResponse> findRecent(int limit) {
+        return jdbcTemplate.query(SELECT + "ORDER BY occurred_at DESC, id DESC LIMIT ?", ROW_MAPPER, limit);
+    }
+}
@@ -0,0 +1,11 @@
+package com.project.Trinity.Repository;
+
+import com.project.Trinity.Entity.EmailOutbox;
+import com.project.Trinity.Entity.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+    long countByStatus(OutboxStatus status);
+}
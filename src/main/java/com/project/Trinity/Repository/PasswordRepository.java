@@ -1,8 +1,10 @@
 package com.project.Trinity.Repository;
 
+import com.project.Trinity.DTO.PasswordSummary;
 import com.project.Trinity.Entity.Password;
 import com.project.Trinity.Entity.Status;
 import com.project.Trinity.Entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,8 +12,33 @@ import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface PasswordRepository extends JpaRepository<Password, Long> {
+    // Listeleme uçları için projeksiyon: PasswordResponse'un ihtiyaç duyduğu kolonlar tek SQL ile okunur (N+1 yok)
+    String SUMMARY_SELECT = "SELECT new com.project.Trinity.DTO.PasswordSummary("
+            + "p.id, c.id, c.name, p.title, p.username, p.description, p.status, p.isFeatured) "
+            + "FROM Password p JOIN p.category c ";
+
     List<Password> findByCreatedByAndStatus(User createdBy, Status status);
 
+    @Query(SUMMARY_SELECT + "WHERE p.createdBy.id = :userId AND p.status = :status ORDER BY p.id")
+    List<PasswordSummary> findSummariesByCreatedBy(@Param("userId") Long userId, @Param("status") Status status);
+
+    // Keyset sayfalama: id > afterId
+    @Query(SUMMARY_SELECT + "WHERE p.createdBy.id = :userId AND p.status = :status AND p.id > :afterId ORDER BY p.id")
+    List<PasswordSummary> findSummaryPageByCreatedBy(@Param("userId") Long userId, @Param("status") Status status, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.user.id = :userId AND c.name = :categoryName AND p.status = :status")
+    List<PasswordSummary> findSummariesByUserAndCategoryName(@Param("userId") Long userId, @Param("categoryName") String categoryName, @Param("status") Status status);
+
+    @Query(SUMMARY_SELECT + "WHERE p.user.id = :userId AND p.isFeatured = true AND p.status = :status")
+    List<PasswordSummary> findFeaturedSummariesByUser(@Param("userId") Long userId, @Param("status") Status status);
+
+    // Top-K: LIMIT veritabanında uygulanır, (user_id, status, view_count DESC) indeksinden okunur
+    @Query("SELECT new com.project.Trinity.DTO.PasswordSummary("
+            + "p.id, c.id, c.name, p.title, p.username, p.description, p.status, p.isFeatured, CAST(p.viewCount AS long)) "
+            + "FROM Password p JOIN p.category c "
+            + "WHERE p.user.id = :userId AND p.status = :status ORDER BY p.viewCount DESC, p.id")
+    List<PasswordSummary> findMostViewedSummariesByUser(@Param("userId") Long userId, @Param("status") Status status, Pageable pageable);
+
     List<Password> findByUserAndCategoryName(User user, String categoryName);
 
     List<Password> findByUser(User user);
@@ -20,15 +47,7 @@ public interface PasswordRepository extends JpaRepository<Password, Long> {
     @Query("SELECT DISTINCT p.category.name FROM Password p WHERE p.user = :user AND p.status = 'ACTIVE'")
     List<String> findDistinctCategoryByUser(@Param("user") User user);
 
-    // Yeni metod: Kullanıcı ve kategori adına göre yalnızca ACTIVE şifreleri getir
-    @Query("SELECT p FROM Password p WHERE p.user = :user AND p.category.name = :categoryName AND p.status = :status")
-    List<Password> findByUserAndCategoryNameAndStatus(@Param("user") User user, @Param("categoryName") String categoryName, @Param("status") Status status);
-    
-    @Query("SELECT p FROM Password p WHERE p.user = :user AND p.status = :status ORDER BY p.viewCount DESC")
-    List<Password> findByUserAndStatusOrderByViewCountDesc(@Param("user") User user, @Param("status") Status status);
-
-   List<Password> findByUserAndIsFeaturedTrueAndStatus(@Param("user") User user, @Param("status") Status status);
-    
-    @Query("SELECT p.category.name, COUNT(p) FROM Password p WHERE p.status = 'ACTIVE' GROUP BY p.category.name")
-    List<Object[]> findPasswordCountByCategory();
+    // Yalnızca DashboardStats uzlaştırmasında kullanılır; kategori adları ayrıca çözülür
+    @Query("SELECT p.category.id, COUNT(p) FROM Password p WHERE p.status = 'ACTIVE' GROUP BY p.category.id")
+    List<Object[]> findActivePasswordCountByCategoryId();
 }
\ No newline at end of file
@@ -1,11 +0,0 @@
-
-package com.project.Trinity.Repository;
-
-import com.project.Trinity.Entity.PasswordResetToken;
-import org.springframework.data.jpa.repository.JpaRepository;
-
-import java.util.Optional;
-
-public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, Long> {
-    Optional<PasswordResetToken> findByToken(String token);
-}
\ No newline at end of file
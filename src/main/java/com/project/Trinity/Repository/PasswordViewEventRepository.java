@@ -0,0 +1,20 @@
+package com.project.Trinity.Repository;
+
+import com.project.Trinity.Entity.PasswordViewEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PasswordViewEventRepository extends JpaRepository<PasswordViewEvent, Long> {
+
+    // Gün başına toplam görüntülenme; (user_id, viewed_at) indeksiyle yalnızca pencere okunur. Satırlar: [java.sql.Date, Number]
+    @Query(value = "SELECT CAST(date_trunc('day', viewed_at) AS date) AS day, SUM(views) AS total " +
+            "FROM password_view_events WHERE user_id = :userId AND viewed_at >= :since " +
+            "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<Object[]> sumViewsPerDay(@Param("userId") Long userId, @Param("since") LocalDateTime since);
+}
@@ -0,0 +1,35 @@
+package com.project.Trinity.Repository;
+
+import com.project.Trinity.DTO.ProfilePictureInfo;
+import com.project.Trinity.Entity.ProfilePicture;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProfilePictureRepository extends JpaRepository<ProfilePicture, Long> {
+
+    @Query("SELECT new com.project.Trinity.DTO.ProfilePictureInfo(p.userId, p.contentHash, p.contentType, p.sizeBytes, p.updatedAt) " +
+           "FROM ProfilePicture p WHERE p.userId = :userId")
+    Optional<ProfilePictureInfo> findInfoByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.project.Trinity.DTO.ProfilePictureInfo(p.userId, p.contentHash, p.contentType, p.sizeBytes, p.updatedAt) " +
+           "FROM ProfilePicture p WHERE p.userId IN :userIds")
+    List<ProfilePictureInfo> findInfoByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT p.data FROM ProfilePicture p WHERE p.userId = :userId")
+    Optional<byte[]> findDataByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT p.thumbnail FROM ProfilePicture p WHERE p.userId = :userId")
+    Optional<byte[]> findThumbnailByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM ProfilePicture p WHERE p.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
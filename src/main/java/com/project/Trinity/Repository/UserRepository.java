@@ -1,12 +1,10 @@
 package com.project.Trinity.Repository;
 
 
-import com.project.Trinity.Entity.Status;
 import com.project.Trinity.Entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,5 +14,4 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByPhone(String phone);
     Optional<User> findByRole(String role);
     Optional<User> findByStatus(String status);
-    List<User> findAllByStatus(Status status);
 }
\ No newline at end of file
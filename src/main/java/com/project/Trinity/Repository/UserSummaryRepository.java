@@ -0,0 +1,68 @@
+package com.project.Trinity.Repository;
+
+import com.project.Trinity.DTO.UserResponse;
+import com.project.Trinity.Entity.Role;
+import com.project.Trinity.Entity.Status;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Admin kullanıcı listesi için yalnızca liste kolonlarını okuyan sorgular; şifre özeti ve diğer kolonlar seçilmez.
+ * Durum/rol filtreleri (status, id) ve (role, id) indekslerinden, arama lower(username)/lower(email) önek
+ * indekslerinden (schema.sql) karşılanır.
+ */
+@Repository
+public class UserSummaryRepository {
+
+    private static final String SELECT = "SELECT id, username, email, phone, status, role FROM users ";
+
+    private static final RowMapper<UserResponse> ROW_MAPPER = (rs, rowNum) -> new UserResponse(
+            rs.getLong("id"),
+            rs.getString("username"),
+            rs.getString("email"),
+            rs.getString("phone"),
+            rs.getString("status") != null ? rs.getString("status") : Status.ACTIVE.name(),
+            rs.getString("role"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserSummaryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Keyset sayfalama: id > afterId. Arama, kullanıcı adı veya e-postanın başıyla büyük/küçük harf duyarsız eşleşir;
+     * LIKE özel karakterleri kaçırılır.
+     */
+    public List<UserResponse> findPage(Status status, Role role, String search, long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT).append("WHERE id > ?");
+        List<Object> args = new ArrayList<>();
+        args.add(afterId);
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status.name());
+        }
+        if (role != null) {
+            sql.append(" AND role = ?");
+            args.add(role.name());
+        }
+        if (search != null && !search.isBlank()) {
+            String prefix = escapeLike(search.trim().toLowerCase(Locale.ROOT)) + "%";
+            sql.append(" AND (lower(username) LIKE ? OR lower(email) LIKE ?)");
+            args.add(prefix);
+            args.add(prefix);
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        args.add(limit);
+        return jdbcTemplate.query(sql.toString(), ROW_MAPPER, args.toArray());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,23 @@
+package com.project.Trinity.Repository;
+
+import com.project.Trinity.Entity.VerificationCode;
+import com.project.Trinity.Entity.VerificationPurpose;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface VerificationCodeRepository extends JpaRepository<VerificationCode, Long> {
+
+    Optional<VerificationCode> findByCodeHash(String codeHash);
+
+    boolean existsByCodeHash(String codeHash);
+
+    @Modifying
+    @Query("DELETE FROM VerificationCode v WHERE v.userId = :userId AND v.purpose = :purpose")
+    int deleteByUserIdAndPurpose(@Param("userId") Long userId, @Param("purpose") VerificationPurpose purpose);
+}
@@ -0,0 +1,258 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.AuditAction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Denetim olaylarını sınırlı bir kuyrukta toplar ve arka plandaki tek bir thread ile audit_events tablosuna toplu INSERT
+ * olarak yazar. İşlemi yapan kullanıcı ve IP adresi çağrı anında istek bağlamından alınır.
+ * ID'ler audit_events_seq dizisinden (kolon varsayılanı) alınır; IDENTITY'nin aksine satır başına geri dönüş gerekmez ve sürücü
+ * (reWriteBatchedInserts) batch'i çok satırlı INSERT'e çevirir. Transaction içinden gelen kayıtlar commit sonrasında kuyruğa girer.
+ * Kuyruk dolduğunda audit.overflow-policy uygulanır: BLOCK, DROP veya CALLER_RUNS.
+ */
+@Component
+public class AuditLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+    private static final String INSERT_SQL =
+            "INSERT INTO audit_events (occurred_at, actor, action, target_id, ip_address, details) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int MAX_DETAILS_LENGTH = 500;
+
+    public enum OverflowPolicy {
+        BLOCK,       // block-timeout-ms kadar bekler, sonra çağıran thread'de yazar
+        DROP,        // Kaydı atar ve sayar
+        CALLER_RUNS  // Kaydı çağıran thread'de hemen yazar
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditPartitionManager partitionManager; // Yazmaya başlamadan önce bu ayın bölümünü oluşturur
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder blockTimeouts = new LongAdder(); // BLOCK beklemesi dolup çağıran thread'de yazılanlar
+
+    @Value("${audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${audit.overflow-policy:CALLER_RUNS}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${audit.block-timeout-ms:100}")
+    private long blockTimeoutMs;
+
+    @Value("${audit.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${audit.shutdown-timeout-ms:10000}")
+    private long shutdownTimeoutMs;
+
+    private BlockingQueue<AuditEntry> queue;
+    private Thread worker;
+    private volatile boolean running;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate, AuditPartitionManager partitionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitionManager = partitionManager;
+    }
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        worker = new Thread(this::run, "audit-log-writer");
+        worker.start();
+    }
+
+    public void record(AuditAction action, Long targetId, String details) {
+        if (details != null && details.length() > MAX_DETAILS_LENGTH) {
+            details = details.substring(0, MAX_DETAILS_LENGTH);
+        }
+        AuditEntry entry = new AuditEntry(LocalDateTime.now(), currentActor(), action, targetId, currentIpAddress(), details);
+        // Geri alınan işlemler denetim kaydı bırakmaz
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(entry);
+                }
+            });
+        } else {
+            enqueue(entry);
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        return Map.of(
+                "queued", (long) queue.size(),
+                "submitted", submitted.sum(),
+                "written", written.sum(),
+                "dropped", dropped.sum(),
+                "callerRuns", callerRuns.sum(),
+                "blockTimeouts", blockTimeouts.sum());
+    }
+
+    private void enqueue(AuditEntry entry) {
+        submitted.increment();
+        if (running && queue.offer(entry)) {
+            return;
+        }
+        if (!running) {
+            writeNow(List.of(entry)); // Kapanış sırasında gelen kayıtlar doğrudan yazılır
+            return;
+        }
+        switch (overflowPolicy) {
+            case DROP -> {
+                dropped.increment();
+                logger.warn("Audit queue full, entry dropped: {} {}", entry.action(), entry.targetId());
+            }
+            case BLOCK -> {
+                try {
+                    if (!queue.offer(entry, blockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                        blockTimeouts.increment();
+                        writeNow(List.of(entry));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    blockTimeouts.increment();
+                    writeNow(List.of(entry));
+                }
+            }
+            case CALLER_RUNS -> {
+                callerRuns.increment();
+                writeNow(List.of(entry));
+            }
+        }
+    }
+
+    private void writeNow(List<AuditEntry> entries) {
+        try {
+            write(entries);
+        } catch (RuntimeException e) {
+            dropped.add(entries.size());
+            logger.error("Audit entry could not be written: {}", e.getMessage());
+        }
+    }
+
+    private void run() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEntry first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeWithRetry(List<AuditEntry> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxRetries) {
+                    dropped.add(batch.size());
+                    logger.error("Audit batch of {} entries dropped after {} attempts: {}", batch.size(), attempt, e.getMessage());
+                    return;
+                }
+                logger.warn("Audit batch write failed (attempt {}), retrying: {}", attempt, e.getMessage());
+                Thread.sleep(200L << attempt);
+            }
+        }
+    }
+
+    private void write(List<AuditEntry> entries) {
+        List<Object[]> args = new ArrayList<>(entries.size());
+        for (AuditEntry entry : entries) {
+            args.add(new Object[]{Timestamp.valueOf(entry.occurredAt()), entry.actor(), entry.action().name(),
+                    entry.targetId(), entry.ipAddress(), entry.details()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, args);
+        written.add(entries.size());
+    }
+
+    // Kuyrukta kalan kayıtlar kapanışta yazılır; worker süresinde bitiremezse kalanlar bu thread'de yazılır
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            worker.join(shutdownTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            worker.interrupt();
+        }
+        List<AuditEntry> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            List<AuditEntry> chunk = remaining.subList(from, Math.min(from + batchSize, remaining.size()));
+            try {
+                write(chunk);
+            } catch (RuntimeException e) {
+                dropped.add(chunk.size());
+                logger.error("Audit entries lost on shutdown: {}", chunk.size());
+            }
+        }
+        logger.info("Audit writer stopped: {}", getStats());
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static String currentIpAddress() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            return request.getRemoteAddr();
+        }
+        return null;
+    }
+
+    private record AuditEntry(LocalDateTime occurredAt, String actor, AuditAction action, Long targetId,
+                              String ipAddress, String details) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.JobCheckpoint;
+import com.project.Trinity.Repository.JobCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * audit_events tablosunun aylık bölümlerini yönetir: önümüzdeki aylar için bölüm açar, saklama süresini aşan
+ * bölümleri DROP TABLE ile siler (satır satır DELETE yapılmaz) ve eski audit_log tablosundaki kayıtları bir kez taşır.
+ */
+@Component
+public class AuditPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditPartitionManager.class);
+    private static final String PARTITION_PREFIX = "audit_events_";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String MIGRATION_JOB = "audit-log-migration";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobCheckpointRepository checkpointRepository;
+
+    @Value("${audit.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${audit.partitions-ahead:2}")
+    private int partitionsAhead;
+
+    @Value("${audit.migration-batch-size:5000}")
+    private int migrationBatchSize;
+
+    public AuditPartitionManager(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 JobCheckpointRepository checkpointRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.checkpointRepository = checkpointRepository;
+    }
+
+    // AuditLogWriter yazmaya başlamadan önce bu ayın bölümü hazır olmalı
+    @PostConstruct
+    void init() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${audit.partition-maintenance-cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= partitionsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        dropExpiredPartitions();
+    }
+
+    private void createPartition(YearMonth month) {
+        String sql = String.format("CREATE TABLE IF NOT EXISTS %s%s PARTITION OF audit_events FOR VALUES FROM ('%s') TO ('%s')",
+                PARTITION_PREFIX, month.format(PARTITION_SUFFIX), month.atDay(1), month.plusMonths(1).atDay(1));
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException e) {
+            // Başka bir düğüm aynı bölümü aynı anda oluşturmuş olabilir
+            logger.warn("Audit partition for {} could not be created: {}", month, e.getMessage());
+        }
+    }
+
+    private void dropExpiredPartitions() {
+        YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = 'audit_events'", String.class);
+        for (String partition : partitions) {
+            YearMonth month = partitionMonth(partition);
+            if (month != null && month.isBefore(oldestKept)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                logger.info("Audit partition dropped by retention policy: {}", partition);
+            }
+        }
+    }
+
+    private static YearMonth partitionMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Eski audit_log tablosu varsa saklama süresi içindeki kayıtlarını LEGACY eylemiyle audit_events'e taşır.
+     * Her parti ve checkpoint aynı transaction'da yazılır; yarıda kesilirse kaldığı yerden devam eder.
+     * Taşıma bittikten sonra audit_log tablosu elle silinebilir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyAuditLog() {
+        if (jdbcTemplate.queryForObject("SELECT to_regclass('audit_log') IS NOT NULL", Boolean.class) != Boolean.TRUE) {
+            return;
+        }
+        JobCheckpoint checkpoint = checkpointRepository.findById(MIGRATION_JOB).orElseGet(() -> new JobCheckpoint(MIGRATION_JOB));
+        if (checkpoint.isCompleted()) {
+            return;
+        }
+        LocalDateTime cutoff = YearMonth.now().minusMonths(retentionMonths).atDay(1).atStartOfDay();
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(timestamp) FROM audit_log WHERE timestamp >= ?", Timestamp.class, Timestamp.valueOf(cutoff));
+        if (oldest != null) {
+            for (YearMonth month = YearMonth.from(oldest.toLocalDateTime()); month.isBefore(YearMonth.now()); month = month.plusMonths(1)) {
+                createPartition(month);
+            }
+        }
+
+        long migrated = 0;
+        while (true) {
+            long afterId = checkpoint.getLastId();
+            Long lastId = transactionTemplate.execute(status -> {
+                Long last = jdbcTemplate.queryForObject(
+                        "WITH batch AS (SELECT id, timestamp, admin, action FROM audit_log WHERE id > ? ORDER BY id LIMIT ?), " +
+                        "moved AS (INSERT INTO audit_events (occurred_at, actor, action, details) " +
+                        "SELECT timestamp, admin, 'LEGACY', LEFT(action, 500) FROM batch WHERE timestamp >= ?) " +
+                        "SELECT MAX(id) FROM batch",
+                        Long.class, afterId, migrationBatchSize, Timestamp.valueOf(cutoff));
+                checkpoint.setLastId(last != null ? last : afterId);
+                checkpoint.setCompleted(last == null);
+                checkpoint.setUpdatedAt(LocalDateTime.now());
+                checkpointRepository.save(checkpoint);
+                return last;
+            });
+            if (lastId == null) {
+                break;
+            }
+            migrated += migrationBatchSize;
+        }
+        logger.info("Legacy audit_log migration completed (~{} rows scanned); audit_log can now be dropped", migrated);
+    }
+}
@@ -16,9 +16,11 @@ import java.util.Optional;
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final DashboardStats dashboardStats;
 
-    public CategoryService(CategoryRepository categoryRepository) {
+    public CategoryService(CategoryRepository categoryRepository, DashboardStats dashboardStats) {
         this.categoryRepository = categoryRepository;
+        this.dashboardStats = dashboardStats;
     }
 
     @Transactional
@@ -38,7 +40,9 @@ public class CategoryService {
 
         category.setStatus(status);
 
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        dashboardStats.categorySaved(savedCategory.getId(), savedCategory.getName());
+        return savedCategory;
     }
 
     @Transactional(readOnly = true)
@@ -67,7 +71,9 @@ public class CategoryService {
 
         category.setStatus(status);
 
-        return categoryRepository.save(category);
+        Category savedCategory = categoryRepository.save(category);
+        dashboardStats.categorySaved(savedCategory.getId(), savedCategory.getName());
+        return savedCategory;
     }
 
     @Transactional
@@ -0,0 +1,196 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.Category;
+import com.project.Trinity.Entity.Status;
+import com.project.Trinity.Repository.AuditEventRepository;
+import com.project.Trinity.Repository.CategoryRepository;
+import com.project.Trinity.Repository.PasswordRepository;
+import com.project.Trinity.Repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admin paneli istatistiklerini bellekte tutar. Sayaçlar servislerdeki oluşturma/silme olaylarıyla commit sonrasında
+ * artırılır ve periyodik olarak veritabanıyla uzlaştırılır; panel isteği tam tablo taraması yapmaz.
+ * Uzlaştırma sırasında commit edilen olaylar bir sonraki uzlaştırmaya kadar küçük bir sapma oluşturabilir.
+ */
+@Component
+public class DashboardStats {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardStats.class);
+
+    private final PasswordRepository passwordRepository;
+    private final UserRepository userRepository;
+    private final CategoryRepository categoryRepository;
+    private final AuditEventRepository auditEventRepository;
+
+    private final AtomicLong passwordCount = new AtomicLong();
+    private final AtomicLong userCount = new AtomicLong();
+    private final Map<Long, LongAdder> activePasswordsByCategory = new ConcurrentHashMap<>();
+    private final Map<Long, String> categoryNames = new ConcurrentHashMap<>();
+    private volatile List<String> recentActions = List.of();
+
+    public DashboardStats(PasswordRepository passwordRepository, UserRepository userRepository,
+                          CategoryRepository categoryRepository, AuditEventRepository auditEventRepository) {
+        this.passwordRepository = passwordRepository;
+        this.userRepository = userRepository;
+        this.categoryRepository = categoryRepository;
+        this.auditEventRepository = auditEventRepository;
+    }
+
+    public long getPasswordCount() {
+        return passwordCount.get();
+    }
+
+    public long getUserCount() {
+        return userCount.get();
+    }
+
+    public List<String> getRecentActions() {
+        return recentActions;
+    }
+
+    /** Aktif şifrelerin kategori adına göre dağılımı; boş kategoriler dahil edilmez. */
+    public Map<String, Integer> getCategoryDistribution() {
+        Map<String, Integer> distribution = new HashMap<>();
+        activePasswordsByCategory.forEach((categoryId, count) -> {
+            long value = count.sum();
+            String name = categoryNames.get(categoryId);
+            if (value > 0 && name != null) {
+                distribution.merge(name, (int) value, Integer::sum); // Kategori adları benzersiz değildir
+            }
+        });
+        return distribution;
+    }
+
+    public void userCreated() {
+        afterCommit(userCount::incrementAndGet);
+    }
+
+    public void usersCreated(long count) {
+        if (count > 0) {
+            afterCommit(() -> userCount.addAndGet(count));
+        }
+    }
+
+    public void userDeleted() {
+        afterCommit(userCount::decrementAndGet);
+    }
+
+    public void passwordCreated(Long categoryId, Status status) {
+        afterCommit(() -> {
+            passwordCount.incrementAndGet();
+            if (status == Status.ACTIVE) {
+                adjustCategory(categoryId, 1);
+            }
+        });
+    }
+
+    /** Toplu içe aktarma: yeni aktif şifrelerin kategori bazında sayıları. */
+    public void passwordsCreated(Map<Long, Long> activeByCategory) {
+        if (activeByCategory.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> counts = Map.copyOf(activeByCategory);
+        afterCommit(() -> counts.forEach((categoryId, count) -> {
+            passwordCount.addAndGet(count);
+            adjustCategory(categoryId, count);
+        }));
+    }
+
+    /** Şifrenin kategorisi veya durumu değiştiğinde çağrılır; silme de INACTIVE'e geçiştir. */
+    public void passwordChanged(Long oldCategoryId, Status oldStatus, Long newCategoryId, Status newStatus) {
+        if (oldStatus == newStatus && Objects.equals(oldCategoryId, newCategoryId)) {
+            return;
+        }
+        afterCommit(() -> {
+            if (oldStatus == Status.ACTIVE) {
+                adjustCategory(oldCategoryId, -1);
+            }
+            if (newStatus == Status.ACTIVE) {
+                adjustCategory(newCategoryId, 1);
+            }
+        });
+    }
+
+    public void categorySaved(Long categoryId, String name) {
+        afterCommit(() -> categoryNames.put(categoryId, name));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${dashboard.reconcile-interval-ms:300000}", initialDelayString = "${dashboard.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            long passwords = passwordRepository.count();
+            long users = userRepository.count();
+            Map<Long, Long> distribution = new HashMap<>();
+            for (Object[] row : passwordRepository.findActivePasswordCountByCategoryId()) {
+                distribution.put((Long) row[0], (Long) row[1]);
+            }
+            Map<Long, String> names = new HashMap<>();
+            for (Category category : categoryRepository.findAll()) {
+                names.put(category.getId(), category.getName());
+            }
+
+            long passwordDrift = passwordCount.getAndSet(passwords) - passwords;
+            long userDrift = userCount.getAndSet(users) - users;
+            activePasswordsByCategory.keySet().retainAll(distribution.keySet());
+            distribution.forEach((categoryId, count) -> {
+                LongAdder adder = activePasswordsByCategory.computeIfAbsent(categoryId, id -> new LongAdder());
+                adder.add(count - adder.sum());
+            });
+            categoryNames.keySet().retainAll(names.keySet());
+            categoryNames.putAll(names);
+            refreshRecentActions();
+
+            if (passwordDrift != 0 || userDrift != 0) {
+                logger.info("Dashboard counters reconciled: passwordDrift={}, userDrift={}", passwordDrift, userDrift);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Dashboard reconcile failed: {}", e.getMessage());
+        }
+    }
+
+    // Denetim kayıtları birçok yerden yazıldığı için son işlemler kısa aralıkla yenilenir
+    @Scheduled(fixedDelayString = "${dashboard.recent-actions-refresh-ms:15000}")
+    public void refreshRecentActions() {
+        recentActions = auditEventRepository.findRecent(10)
+                .stream()
+                .map(event -> event.getDetails() != null ? event.getDetails() : event.getAction())
+                .toList();
+    }
+
+    private void adjustCategory(Long categoryId, long delta) {
+        if (categoryId != null) {
+            activePasswordsByCategory.computeIfAbsent(categoryId, id -> new LongAdder()).add(delta);
+        }
+    }
+
+    // Geri alınan transaction'lar sayaçları değiştirmez
+    private static void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+}
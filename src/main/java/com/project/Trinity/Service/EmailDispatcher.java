@@ -0,0 +1,288 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.OutboxStatus;
+import com.project.Trinity.Repository.EmailOutboxRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * email_outbox tablosundaki bekleyen e-postaları gönderir. Poller thread'i satırları FOR UPDATE SKIP LOCKED ile kiralar
+ * (birden fazla düğüm aynı satırı almaz), worker havuzu her parçayı tek SMTP bağlantısı üzerinden
+ * {@code send(MimeMessage...)} ile gönderir. Başarısız gönderimler üstel beklemeyle yeniden denenir; uygulama kapanırsa
+ * satırlar tabloda kalır ve açılışta kaldığı yerden devam edilir. Yerel testte spring.mail.host/port bir SMTP
+ * taklidine (ör. localhost:1025) yönlendirilebilir.
+ */
+@Component
+public class EmailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    private static final String CLAIM_SQL =
+            "UPDATE email_outbox SET status = 'SENDING', attempts = attempts + 1, next_attempt_at = ? " +
+            "WHERE id IN (SELECT id FROM email_outbox WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= ? " +
+            "AND attempts < ? ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, recipient, subject, body, attempts";
+    private static final String SENT_SQL =
+            "UPDATE email_outbox SET status = 'SENT', sent_at = ?, body = NULL, last_error = NULL WHERE id = ?";
+    private static final String RETRY_SQL =
+            "UPDATE email_outbox SET status = 'PENDING', next_attempt_at = ?, last_error = ? WHERE id = ?";
+    // Kalıcı hatada gövde (içindeki doğrulama kodu) saklanmaz; satır saklama süresi sonunda ExpirySweeper ile silinir
+    private static final String FAILED_SQL =
+            "UPDATE email_outbox SET status = 'FAILED', next_attempt_at = ?, body = NULL, last_error = ? WHERE id = ?";
+    // Kirası dolmuş ama deneme hakkı bitmiş SENDING satırları (gönderim sırasında düğüm düştü) yeniden gönderilmez
+    private static final String EXHAUSTED_SQL =
+            "UPDATE email_outbox SET status = 'FAILED', next_attempt_at = ?, body = NULL, " +
+            "last_error = 'Lease expired after final attempt' " +
+            "WHERE status = 'SENDING' AND next_attempt_at <= ? AND attempts >= ?";
+
+    private final JavaMailSender mailSender;
+    private final JdbcTemplate jdbcTemplate;
+    private final EmailOutboxRepository outboxRepository;
+    private final Object signal = new Object();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Value("${mail.outbox.workers:2}")
+    private int workers;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mail.outbox.poll-interval-ms:2000}")
+    private long pollIntervalMs;
+
+    @Value("${mail.outbox.lease-seconds:120}")
+    private long leaseSeconds; // SENDING durumunda kalan satırlar bu süreden sonra, deneme hakkı kaldıysa yeniden alınır
+
+    @Value("${mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.backoff-base-seconds:10}")
+    private long backoffBaseSeconds;
+
+    @Value("${mail.outbox.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    private ExecutorService workerPool;
+    private Thread poller;
+    private volatile boolean running;
+    private volatile boolean wakeRequested;
+
+    public EmailDispatcher(JavaMailSender mailSender, JdbcTemplate jdbcTemplate, EmailOutboxRepository outboxRepository) {
+        this.mailSender = mailSender;
+        this.jdbcTemplate = jdbcTemplate;
+        this.outboxRepository = outboxRepository;
+    }
+
+    @PostConstruct
+    void start() {
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "mail-outbox-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        poller = new Thread(this::pollLoop, "mail-outbox-poller");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    /** Yeni bir e-posta kuyruğa yazıldıktan (commit) sonra çağrılır; poller beklemeden çalışır. */
+    public void wakeUp() {
+        synchronized (signal) {
+            wakeRequested = true;
+            signal.notifyAll();
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        return Map.of(
+                "pending", outboxRepository.countByStatus(OutboxStatus.PENDING),
+                "inFlight", (long) inFlight.get(),
+                "sent", sent.sum(),
+                "retried", retried.sum(),
+                "failed", failed.sum());
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                int claimed = dispatchOnce();
+                if (claimed < batchSize) {
+                    synchronized (signal) {
+                        if (!wakeRequested && running) {
+                            signal.wait(pollIntervalMs);
+                        }
+                        wakeRequested = false;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Mail outbox poll failed: {}", e.getMessage());
+                sleepQuietly(pollIntervalMs);
+            }
+        }
+    }
+
+    // Bir parti kiralar, worker'lara paylaştırır ve hepsi bitene kadar bekler; kiralanan satır sayısını döner
+    private int dispatchOnce() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        int exhausted = jdbcTemplate.update(EXHAUSTED_SQL, Timestamp.valueOf(now), Timestamp.valueOf(now), maxAttempts);
+        if (exhausted > 0) {
+            failed.add(exhausted);
+            logger.error("{} emails failed permanently: lease expired after the final attempt", exhausted);
+        }
+        List<OutboxMessage> claimed = jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new OutboxMessage(rs.getLong("id"), rs.getString("recipient"), rs.getString("subject"),
+                        rs.getString("body"), rs.getInt("attempts")),
+                Timestamp.valueOf(now.plusSeconds(leaseSeconds)), Timestamp.valueOf(now), maxAttempts, batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+        int chunkSize = (claimed.size() + workers - 1) / workers;
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0; from < claimed.size(); from += chunkSize) {
+            List<OutboxMessage> chunk = claimed.subList(from, Math.min(from + chunkSize, claimed.size()));
+            inFlight.addAndGet(chunk.size());
+            futures.add(workerPool.submit(() -> {
+                try {
+                    sendChunk(chunk);
+                } finally {
+                    inFlight.addAndGet(-chunk.size());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                logger.error("Mail worker failed: {}", e.getCause().getMessage());
+            }
+        }
+        return claimed.size();
+    }
+
+    // Parçadaki tüm mesajlar tek bağlantıyla gönderilir; hata haritası yalnızca başarısız mesajları içerir
+    private void sendChunk(List<OutboxMessage> chunk) {
+        Map<MimeMessage, OutboxMessage> byMessage = new IdentityHashMap<>();
+        for (OutboxMessage message : chunk) {
+            try {
+                byMessage.put(toMimeMessage(message), message);
+            } catch (MessagingException | RuntimeException e) {
+                markFailed(message, e);
+            }
+        }
+        if (byMessage.isEmpty()) {
+            return;
+        }
+        Map<Object, Exception> failures = Map.of();
+        try {
+            mailSender.send(byMessage.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                byMessage.values().forEach(message -> markFailed(message, e)); // Bağlantı kurulamadı
+                return;
+            }
+        } catch (MailException e) {
+            byMessage.values().forEach(message -> markFailed(message, e));
+            return;
+        }
+
+        List<Object[]> sentArgs = new ArrayList<>();
+        Timestamp sentAt = Timestamp.valueOf(LocalDateTime.now());
+        for (Map.Entry<MimeMessage, OutboxMessage> entry : byMessage.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure != null) {
+                markFailed(entry.getValue(), failure);
+            } else {
+                sentArgs.add(new Object[]{sentAt, entry.getValue().id()});
+            }
+        }
+        if (!sentArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(SENT_SQL, sentArgs);
+            sent.add(sentArgs.size());
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        // Ek olmadığı için tek parçalı (text/html) mesaj; multipart sarmalayıcı oluşturulmaz
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, false, "UTF-8");
+        helper.setTo(message.recipient());
+        helper.setSubject(message.subject());
+        helper.setText(message.body(), true);
+        return mimeMessage;
+    }
+
+    private void markFailed(OutboxMessage message, Exception e) {
+        String error = String.valueOf(e.getMessage());
+        if (error.length() > 500) {
+            error = error.substring(0, 500);
+        }
+        if (message.attempts() >= maxAttempts) {
+            failed.increment();
+            jdbcTemplate.update(FAILED_SQL, Timestamp.valueOf(LocalDateTime.now()), error, message.id());
+            logger.error("Email {} to {} failed permanently after {} attempts: {}", message.id(), message.recipient(), message.attempts(), error);
+            return;
+        }
+        retried.increment();
+        long delaySeconds = Math.min(backoffMaxSeconds, backoffBaseSeconds << Math.min(message.attempts() - 1, 20));
+        jdbcTemplate.update(RETRY_SQL, Timestamp.valueOf(LocalDateTime.now().plusSeconds(delaySeconds)), error, message.id());
+        logger.warn("Email {} send failed (attempt {}), retrying in {}s: {}", message.id(), message.attempts(), delaySeconds, error);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Gönderimdeki parça tamamlanır; kalan satırlar tabloda kalır ve sonraki açılışta gönderilir
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        wakeUp();
+        try {
+            poller.join(TimeUnit.SECONDS.toMillis(30));
+            workerPool.shutdown();
+            workerPool.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record OutboxMessage(Long id, String recipient, String subject, String body, int attempts) {
+    }
+}
@@ -1,74 +1,68 @@
 package com.project.Trinity.Service;
 
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import com.project.Trinity.Entity.EmailOutbox;
+import com.project.Trinity.Repository.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import java.util.Map;
 
 @Service
 public class EmailService {
-    private final JavaMailSender mailSender;
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailDispatcher emailDispatcher;
+    private final EmailTemplateEngine templateEngine;
 
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
-    }
+    @Value("${mail.support-address:trinity.suport0@gmail.com}")
+    private String supportEmail;
 
-    // Şifre sıfırlama için (mevcut)
-    public void sendResetCodeEmail(String to, String code) throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+    @Value("${verification.code-ttl-minutes:15}")
+    private long codeTtlMinutes; // VerificationCodeService ile aynı ayar; e-postadaki süre kodun gerçek ömrüdür
 
-        helper.setTo(to);
-        helper.setSubject("Trinity Şifre Sıfırlama Kodu");
-        helper.setText(
-                "<h3>Şifre Sıfırlama Kodu</h3>" +
-                "<p>Şifre sıfırlama kodunuz: <strong>" + code + "</strong></p>" +
-                "<p>Bu kod 15 dakika boyunca geçerlidir.</p>" +
-                "<p>Eğer bu isteği siz yapmadıysanız, lütfen \r\n"
-                + "trinity.suport0@gmail.com ile iletişime geçin.</p>",
-                true
-        );
+    public EmailService(EmailOutboxRepository outboxRepository, EmailDispatcher emailDispatcher,
+                        EmailTemplateEngine templateEngine) {
+        this.outboxRepository = outboxRepository;
+        this.emailDispatcher = emailDispatcher;
+        this.templateEngine = templateEngine;
+    }
 
-        mailSender.send(message);
+    // Şifre sıfırlama için (mevcut)
+    public void sendResetCodeEmail(String to, String code) {
+        sendCodeEmail("reset-code", to, code);
     }
 
     // Şifreyi görmek için
-    public void sendViewPasswordCodeEmail(String to, String code) throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true);
-
-        helper.setTo(to);
-        helper.setSubject("Trinity Şifreyi Görmek İçin Doğrulama Kodu");
-        helper.setText(
-                "<h3>Şifreyi Görmek İçin Doğrulama Kodu</h3>" +
-                "<p>Şifrenizi görmek için doğrulama kodunuz: <strong>" + code + "</strong></p>" +
-                "<p>Bu kod 15 dakika boyunca geçerlidir.</p>" +
-                "<p>Eğer bu isteği siz yapmadıysanız, lütfen \r\n"
-                + "trinity.suport0@gmail.com ile iletişime geçin.</p>",
-                true
-        );
-
-        mailSender.send(message);
+    public void sendViewPasswordCodeEmail(String to, String code) {
+        sendCodeEmail("view-password-code", to, code);
     }
 
     // Şifreyi güncellemek için
-    public void sendUpdatePasswordCodeEmail(String to, String code) throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+    public void sendUpdatePasswordCodeEmail(String to, String code) {
+        sendCodeEmail("update-password-code", to, code);
+    }
 
-        helper.setTo(to);
-        helper.setSubject("Trinity Şifreyi Değiştirmek İçin Doğrulama Kodu");
-        helper.setText(
-                "<h3>Şifreyi Değiştirmek İçin Doğrulama Kodu</h3>" +
-                "<p>Şifrenizi güncellemek için doğrulama kodunuz: <strong>" + code + "</strong></p>" +
-                "<p>Bu kod 15 dakika boyunca geçerlidir.</p>" +
-                "<p>Eğer bu isteği siz yapmadıysanız, lütfen \r\n"
-                + "trinity.suport0@gmail.com ile iletişime geçin.</p>",
-                true
-        );
+    // Dil, isteğin Accept-Language başlığından gelir (varsayılan spring.web.locale)
+    private void sendCodeEmail(String template, String to, String code) {
+        EmailTemplateEngine.RenderedEmail email = templateEngine.render(template, LocaleContextHolder.getLocale(),
+                Map.of("code", code, "validMinutes", String.valueOf(codeTtlMinutes), "supportEmail", supportEmail));
+        enqueue(to, email.subject(), email.html());
+    }
 
-        mailSender.send(message);
+    // İstek thread'i SMTP beklemez: e-posta outbox tablosuna yazılır, EmailDispatcher arka planda gönderir
+    private void enqueue(String to, String subject, String html) {
+        outboxRepository.save(new EmailOutbox(to, subject, html));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    emailDispatcher.wakeUp();
+                }
+            });
+        } else {
+            emailDispatcher.wakeUp();
+        }
     }
-}
\ No newline at end of file
+}
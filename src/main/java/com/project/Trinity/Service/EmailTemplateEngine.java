@@ -0,0 +1,144 @@
+package com.project.Trinity.Service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * classpath:templates/email altındaki e-posta şablonlarını açılışta bir kez okuyup sabit metin ve değişken
+ * parçalarına ayırır. İlk satır "Subject: ..." konusudur, kalan satırlar HTML gövdedir; {{ad}} yer tutucuları
+ * render sırasında HTML-escape edilerek doldurulur. Yerelleştirilmiş varyantlar "ad_dil.html" olarak adlandırılır
+ * (ör. reset-code_en.html); bulunamazsa varsayılan "ad.html" kullanılır.
+ */
+@Component
+public class EmailTemplateEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplateEngine.class);
+    private static final String LOCATION = "classpath*:templates/email/*.html";
+    private static final String SUBJECT_PREFIX = "Subject:";
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    // Render tamponu thread başına tekrar kullanılır; büyük bir gövde sonrası bellek tutmamak için sınırlandırılır
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(2048));
+
+    @Value("${mail.templates.default-language:tr}")
+    private String defaultLanguage;
+
+    private Map<String, CompiledTemplate> templates = Map.of();
+
+    @PostConstruct
+    void load() throws IOException {
+        Map<String, CompiledTemplate> compiled = new HashMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            String filename = resource.getFilename();
+            if (filename == null) {
+                continue;
+            }
+            try (InputStream in = resource.getInputStream()) {
+                String source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                String key = filename.substring(0, filename.length() - ".html".length());
+                compiled.put(key, compile(key, source));
+            }
+        }
+        templates = Map.copyOf(compiled);
+        logger.info("Loaded {} email templates", templates.size());
+    }
+
+    public RenderedEmail render(String name, Locale locale, Map<String, String> variables) {
+        CompiledTemplate template = resolve(name, locale);
+        return new RenderedEmail(
+                template.subject.render(variables, false, buffers.get()),
+                template.body.render(variables, true, buffers.get()));
+    }
+
+    private CompiledTemplate resolve(String name, Locale locale) {
+        if (locale != null && !locale.getLanguage().isEmpty() && !locale.getLanguage().equals(defaultLanguage)) {
+            CompiledTemplate localized = templates.get(name + "_" + locale.getLanguage());
+            if (localized != null) {
+                return localized;
+            }
+        }
+        CompiledTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("E-posta şablonu bulunamadı: " + name);
+        }
+        return template;
+    }
+
+    private static CompiledTemplate compile(String key, String source) {
+        int newline = source.indexOf('\n');
+        String firstLine = (newline < 0 ? source : source.substring(0, newline)).trim();
+        if (!firstLine.startsWith(SUBJECT_PREFIX)) {
+            throw new IllegalStateException("E-posta şablonu konu satırıyla başlamalı: " + key);
+        }
+        String body = newline < 0 ? "" : source.substring(newline + 1).replace("\r\n", "\n").stripTrailing();
+        return new CompiledTemplate(
+                Segments.parse(key, firstLine.substring(SUBJECT_PREFIX.length()).trim()),
+                Segments.parse(key, body));
+    }
+
+    public record RenderedEmail(String subject, String html) {
+    }
+
+    private record CompiledTemplate(Segments subject, Segments body) {
+    }
+
+    // literals.length == variables.length + 1; render sırası: literal, değişken, literal, ...
+    private record Segments(String[] literals, String[] variables, int estimatedLength) {
+
+        static Segments parse(String key, String text) {
+            List<String> literals = new ArrayList<>();
+            List<String> variables = new ArrayList<>();
+            int position = 0;
+            while (true) {
+                int start = text.indexOf("{{", position);
+                if (start < 0) {
+                    break;
+                }
+                int end = text.indexOf("}}", start + 2);
+                if (end < 0) {
+                    throw new IllegalStateException("Kapanmamış yer tutucu: " + key);
+                }
+                literals.add(text.substring(position, start));
+                variables.add(text.substring(start + 2, end).trim());
+                position = end + 2;
+            }
+            literals.add(text.substring(position));
+            return new Segments(literals.toArray(new String[0]), variables.toArray(new String[0]), text.length() + 64);
+        }
+
+        String render(Map<String, String> values, boolean escapeHtml, StringBuilder buffer) {
+            buffer.setLength(0);
+            buffer.ensureCapacity(estimatedLength);
+            for (int i = 0; i < variables.length; i++) {
+                buffer.append(literals[i]);
+                String value = values.get(variables[i]);
+                if (value == null) {
+                    throw new IllegalArgumentException("Şablon değişkeni eksik: " + variables[i]);
+                }
+                buffer.append(escapeHtml ? HtmlUtils.htmlEscape(value) : value);
+            }
+            buffer.append(literals[variables.length]);
+            String result = buffer.toString();
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                buffer.setLength(0);
+                buffer.trimToSize();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.project.Trinity.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Süresi dolan satırları küçük parçalar halinde siler: {@code DELETE ... WHERE id IN (SELECT id ... LIMIT n FOR UPDATE SKIP LOCKED)}.
+ * Her parça kendi kısa auto-commit ifadesidir; varlıklar belleğe yüklenmez, JPA cascade'leri tetiklenmez ve
+ * giriş isteklerinin kilitlediği satırlar atlanır. Parçalar arasında beklenir, tek çalıştırma süre bütçesiyle sınırlıdır.
+ */
+@Component
+public class ExpirySweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpirySweeper.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Map<String, LongAdder> deletedTotals = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastRunDeleted = new ConcurrentHashMap<>();
+    private volatile long lastRunMillis;
+
+    @Value("${cleanup.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${cleanup.throttle-ms:50}")
+    private long throttleMillis;
+
+    @Value("${cleanup.max-run-ms:60000}")
+    private long maxRunMillis;
+
+    @Value("${cleanup.email-outbox-retention-days:7}")
+    private long emailOutboxRetentionDays;
+
+    @Value("${cleanup.view-events-retention-days:90}")
+    private long viewEventsRetentionDays;
+
+    public ExpirySweeper(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Her hedef zaman kolonu üzerindeki indeksle taranır; FAILED satırlarda son deneme zamanı next_attempt_at'tedir
+    private List<SweepTarget> targets() {
+        return List.of(
+                new SweepTarget("refresh_token", "refresh_token", "expiry_date", null, LocalDateTime::now),
+                new SweepTarget("verification_codes", "verification_codes", "expires_at", null, LocalDateTime::now),
+                new SweepTarget("email_outbox", "email_outbox", "sent_at", "status = 'SENT'",
+                        () -> LocalDateTime.now().minusDays(emailOutboxRetentionDays)),
+                new SweepTarget("email_outbox.failed", "email_outbox", "next_attempt_at", "status = 'FAILED'",
+                        () -> LocalDateTime.now().minusDays(emailOutboxRetentionDays)),
+                new SweepTarget("password_view_events", "password_view_events", "viewed_at", null,
+                        () -> LocalDateTime.now().minusDays(viewEventsRetentionDays)));
+    }
+
+    @Scheduled(fixedDelayString = "${cleanup.interval-ms:900000}")
+    public void sweep() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        long deadline = started + maxRunMillis;
+        try {
+            for (SweepTarget target : targets()) {
+                long deleted = sweep(target, deadline);
+                lastRunDeleted.put(target.name(), deleted);
+                if (deleted > 0) {
+                    deletedTotals.computeIfAbsent(target.name(), name -> new LongAdder()).add(deleted);
+                    logger.info("Expired rows removed from {}: {}", target.name(), deleted);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lastRunMillis = System.currentTimeMillis() - started;
+            running.set(false);
+        }
+    }
+
+    private long sweep(SweepTarget target, long deadline) throws InterruptedException {
+        String condition = target.column() + " < ?" + (target.extraCondition() != null ? " AND " + target.extraCondition() : "");
+        String sql = "DELETE FROM " + target.table() + " WHERE id IN (SELECT id FROM " + target.table()
+                + " WHERE " + condition + " LIMIT ? FOR UPDATE SKIP LOCKED)";
+        Timestamp cutoff = Timestamp.valueOf(target.cutoff().get());
+        long deleted = 0;
+        while (System.currentTimeMillis() < deadline) {
+            int chunk;
+            try {
+                chunk = jdbcTemplate.update(sql, cutoff, batchSize);
+            } catch (DataAccessException e) {
+                logger.error("Expiry sweep of {} failed: {}", target.name(), e.getMessage());
+                break;
+            }
+            deleted += chunk;
+            if (chunk < batchSize) {
+                break;
+            }
+            Thread.sleep(throttleMillis);
+        }
+        return deleted;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        deletedTotals.forEach((name, total) -> stats.put(name + ".deletedTotal", total.sum()));
+        lastRunDeleted.forEach((name, count) -> stats.put(name + ".lastRunDeleted", count));
+        stats.put("lastRunMillis", lastRunMillis);
+        return stats;
+    }
+
+    private record SweepTarget(String name, String table, String column, String extraCondition, Supplier<LocalDateTime> cutoff) {
+    }
+}
@@ -0,0 +1,222 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.AuditAction;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * frozen-days gündür dondurulmuş (INACTIVE) hesapları siler. Adaylar (status, frozen_at, id) indeksi üzerinden
+ * keyset sayfalama ile okunur; her parça tek bir transaction'da bağımlı satırlarla birlikte toplu DELETE ile silinir.
+ * Parçalar sınırlı bir thread havuzunda çalışır (kuyruk dolunca okuyan thread'in kendisi çalıştırır), tek çalıştırma
+ * süre bütçesiyle sınırlıdır; kalan hesaplar bir sonraki çalıştırmada silinir.
+ */
+@Component
+public class FrozenAccountPurger {
+
+    private static final Logger logger = LoggerFactory.getLogger(FrozenAccountPurger.class);
+
+    private static final String CANDIDATES_SQL =
+            "SELECT id, frozen_at FROM users WHERE status = 'INACTIVE' AND frozen_at < ? " +
+            "AND (frozen_at, id) > (?, ?) ORDER BY frozen_at, id LIMIT ?";
+    // Parça silinirken yeniden etkinleştirilen ya da başka kullanıcılar adına şifre oluşturmuş hesaplar atlanır
+    private static final String LOCK_SQL =
+            "SELECT u.id FROM users u WHERE u.id IN (%s) AND u.status = 'INACTIVE' AND u.frozen_at < ? " +
+            "AND NOT EXISTS (SELECT 1 FROM passwords p WHERE p.created_by = u.id AND p.user_id <> u.id) " +
+            "FOR UPDATE SKIP LOCKED";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditLogWriter auditLogWriter;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final UserDetailsCache userDetailsCache;
+    private final DashboardStats dashboardStats;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final LongAdder purgedTotal = new LongAdder();
+    private final LongAdder failedChunks = new LongAdder();
+    private volatile long lastRunPurged;
+    private volatile long lastRunMillis;
+
+    @Value("${purge.frozen-days:30}")
+    private long frozenDays;
+
+    @Value("${purge.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${purge.threads:2}")
+    private int threads;
+
+    @Value("${purge.queue-capacity:4}")
+    private int queueCapacity;
+
+    @Value("${purge.max-run-ms:120000}")
+    private long maxRunMillis;
+
+    private ThreadPoolExecutor executor;
+
+    public FrozenAccountPurger(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                               AuditLogWriter auditLogWriter, TokenRevocationService tokenRevocationService,
+                               RefreshTokenService refreshTokenService, UserDetailsCache userDetailsCache,
+                               DashboardStats dashboardStats) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.auditLogWriter = auditLogWriter;
+        this.tokenRevocationService = tokenRevocationService;
+        this.refreshTokenService = refreshTokenService;
+        this.userDetailsCache = userDetailsCache;
+        this.dashboardStats = dashboardStats;
+    }
+
+    @PostConstruct
+    void start() {
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "frozen-account-purge");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // Her gün saat 00:00'da çalışır
+    @Scheduled(cron = "${purge.cron:0 0 0 * * ?}")
+    public void purge() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        long deadline = started + maxRunMillis;
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(frozenDays));
+        List<Future<Integer>> futures = new ArrayList<>();
+        long purged = 0;
+        try {
+            Timestamp lastFrozenAt = new Timestamp(0);
+            long lastId = 0;
+            while (System.currentTimeMillis() < deadline) {
+                List<Candidate> page = jdbcTemplate.query(CANDIDATES_SQL,
+                        (rs, rowNum) -> new Candidate(rs.getLong("id"), rs.getTimestamp("frozen_at")),
+                        cutoff, lastFrozenAt, lastId, chunkSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                Candidate last = page.get(page.size() - 1);
+                lastFrozenAt = last.frozenAt();
+                lastId = last.id();
+                List<Long> ids = page.stream().map(Candidate::id).toList();
+                futures.add(executor.submit(() -> purgeChunk(ids, cutoff, deadline)));
+                if (page.size() < chunkSize) {
+                    break;
+                }
+            }
+            for (Future<Integer> future : futures) {
+                try {
+                    purged += future.get();
+                } catch (ExecutionException e) {
+                    failedChunks.increment();
+                    logger.error("Frozen account purge chunk failed: {}", e.getCause().getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Frozen account purge failed: {}", e.getMessage());
+        } finally {
+            lastRunPurged = purged;
+            lastRunMillis = System.currentTimeMillis() - started;
+            running.set(false);
+        }
+        if (purged > 0) {
+            purgedTotal.add(purged);
+            dashboardStats.reconcile(); // Toplu silinen şifreler kategori sayaçlarına tek tek yansıtılmaz
+            logger.info("Purged {} frozen accounts in {} ms", purged, lastRunMillis);
+        }
+    }
+
+    // Bütçe dolduktan sonra kuyruktan alınan parçalar çalıştırılmaz
+    private int purgeChunk(List<Long> candidateIds, Timestamp cutoff, long deadline) {
+        if (System.currentTimeMillis() >= deadline) {
+            return 0;
+        }
+        List<Long> purged = transactionTemplate.execute(status -> {
+            List<Long> ids = jdbcTemplate.queryForList(String.format(LOCK_SQL, placeholders(candidateIds.size())),
+                    Long.class, params(candidateIds, cutoff));
+            if (ids.isEmpty()) {
+                return ids;
+            }
+            String in = placeholders(ids.size());
+            Object[] args = ids.toArray();
+            jdbcTemplate.update("DELETE FROM password_view_events WHERE user_id IN (" + in + ")", args);
+            jdbcTemplate.update("DELETE FROM passwords WHERE user_id IN (" + in + ")", args);
+            jdbcTemplate.update("DELETE FROM refresh_token WHERE user_id IN (" + in + ")", args);
+            jdbcTemplate.update("DELETE FROM verification_codes WHERE user_id IN (" + in + ")", args);
+            jdbcTemplate.update("DELETE FROM profile_pictures WHERE user_id IN (" + in + ")", args);
+            jdbcTemplate.update("DELETE FROM users WHERE id IN (" + in + ")", args);
+            for (Long id : ids) {
+                userDetailsCache.evictById(id);
+                auditLogWriter.record(AuditAction.USER_DELETED, id, "Dondurulmuş hesap silindi: ID " + id);
+            }
+            return ids;
+        });
+        if (purged == null) {
+            return 0;
+        }
+        // Silinen kullanıcıların elindeki access token'lar süreleri dolana kadar reddedilir
+        purged.forEach(tokenRevocationService::revokeUser);
+        refreshTokenService.evictUsers(purged);
+        return purged.size();
+    }
+
+    public Map<String, Long> getStats() {
+        return Map.of(
+                "purgedTotal", purgedTotal.sum(),
+                "failedChunks", failedChunks.sum(),
+                "lastRunPurged", lastRunPurged,
+                "lastRunMillis", lastRunMillis);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static Object[] params(List<Long> ids, Object last) {
+        Object[] args = new Object[ids.size() + 1];
+        for (int i = 0; i < ids.size(); i++) {
+            args[i] = ids.get(i);
+        }
+        args[ids.size()] = last;
+        return args;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Candidate(long id, Timestamp frozenAt) {
+    }
+}
@@ -0,0 +1,219 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.ProfilePictureSize;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Yüklenen resmi doğrular, sınırlı bellekle çözer ve {@link ProfilePictureSize} varyantlarını JPEG olarak üretir.
+ * Önce yalnızca başlık okunur (biçim ve boyut kontrolü); ardından yalnızca ortadaki kare bölge, en büyük varyantın
+ * en az iki katı kalacak şekilde alt örneklenerek çözülür. İşler sınırlı bir thread havuzunda çalışır; havuz ve
+ * kuyruk doluysa istek beklemek yerine reddedilir. Çıktılar meta veri (EXIF, konum) içermez.
+ */
+@Component
+public class ImagePipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImagePipeline.class);
+    private static final Set<String> ALLOWED_FORMATS = Set.of("png", "jpeg", "gif", "bmp");
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    @Value("${image.workers:2}")
+    private int workers;
+
+    @Value("${image.queue-capacity:8}")
+    private int queueCapacity;
+
+    @Value("${image.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Value("${image.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${image.timeout-ms:15000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void start() {
+        ImageIO.setUseCache(false); // Çözme sırasında ek geçici dosya oluşturulmaz
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-pipeline");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public Map<ProfilePictureSize, byte[]> normalize(Path source) {
+        return submit(() -> {
+            try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+                return process(input);
+            }
+        });
+    }
+
+    public Map<ProfilePictureSize, byte[]> normalize(byte[] source) {
+        return submit(() -> {
+            try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(source))) {
+                return process(input);
+            }
+        });
+    }
+
+    public Map<String, Long> getStats() {
+        return Map.of(
+                "queued", (long) executor.getQueue().size(),
+                "active", (long) executor.getActiveCount(),
+                "processed", processed.sum(),
+                "rejected", rejected.sum(),
+                "failed", failed.sum());
+    }
+
+    private Map<ProfilePictureSize, byte[]> submit(Callable<Map<ProfilePictureSize, byte[]>> task) {
+        Future<Map<ProfilePictureSize, byte[]>> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ImageProcessingBusyException("Resim işleme kuyruğu dolu, lütfen daha sonra tekrar deneyin");
+        }
+        try {
+            Map<ProfilePictureSize, byte[]> variants = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            processed.increment();
+            return variants;
+        } catch (ExecutionException e) {
+            failed.increment();
+            if (e.getCause() instanceof IllegalArgumentException invalid) {
+                throw invalid;
+            }
+            logger.warn("Image processing failed: {}", e.getCause().getMessage());
+            throw new IllegalArgumentException("Resim okunamadı");
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            failed.increment();
+            throw new ImageProcessingBusyException("Resim zamanında işlenemedi, lütfen tekrar deneyin");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ImageProcessingBusyException("Resim işleme kesildi");
+        }
+    }
+
+    private Map<ProfilePictureSize, byte[]> process(ImageInputStream input) throws IOException {
+        if (input == null) {
+            throw new IllegalArgumentException("Resim okunamadı");
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            throw new IllegalArgumentException("Profil resmi PNG, JPEG, GIF veya BMP olmalı");
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, true, true); // Meta veriler okunmaz
+            if (!ALLOWED_FORMATS.contains(reader.getFormatName().toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("Profil resmi PNG, JPEG, GIF veya BMP olmalı");
+            }
+            int width = reader.getWidth(0);
+            int height = reader.getHeight(0);
+            if ((long) width * height > maxPixels) {
+                throw new IllegalArgumentException("Resim çözünürlüğü çok yüksek");
+            }
+            int side = Math.min(width, height);
+            int factor = Math.max(1, side / (ProfilePictureSize.MEDIUM.getPixels() * 2));
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceRegion(new Rectangle((width - side) / 2, (height - side) / 2, side, side));
+            param.setSourceSubsampling(factor, factor, 0, 0);
+            BufferedImage image = reader.read(0, param);
+
+            // Küçük varyant büyükten türetilir; her adımda en fazla yarıya indirilir
+            Map<ProfilePictureSize, byte[]> variants = new EnumMap<>(ProfilePictureSize.class);
+            BufferedImage medium = scale(image, ProfilePictureSize.MEDIUM.getPixels());
+            variants.put(ProfilePictureSize.MEDIUM, encodeJpeg(medium));
+            variants.put(ProfilePictureSize.SMALL, encodeJpeg(scale(medium, ProfilePictureSize.SMALL.getPixels())));
+            return variants;
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int size) {
+        BufferedImage current = source;
+        int currentSize = Math.max(source.getWidth(), source.getHeight());
+        do {
+            currentSize = Math.max(size, currentSize / 2);
+            BufferedImage target = new BufferedImage(currentSize, currentSize, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = target.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.setColor(Color.WHITE); // Saydam alanlar beyaz zemine düşer; JPEG alfa taşımaz
+                graphics.fillRect(0, 0, currentSize, currentSize);
+                graphics.drawImage(current, 0, 0, currentSize, currentSize, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = target;
+        } while (currentSize > size);
+        return current;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,7 @@
+package com.project.Trinity.Service;
+
+public class ImageProcessingBusyException extends RuntimeException {
+    public ImageProcessingBusyException(String message) {
+        super(message);
+    }
+}
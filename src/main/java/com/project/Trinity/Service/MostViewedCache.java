@@ -0,0 +1,153 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.DTO.PasswordSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Kullanıcı başına en çok görüntülenen K şifreyi tutar. Görüntülenme artışları ViewCountBuffer flush'ından sonra
+ * listedeki girdilere doğrudan eklenir; listede olmayan bir girdi artarsa kullanıcının listesi geçersiz kılınır.
+ * Sayılar yaklaşık olabilir; TTL ile sınırlandırılır. Her kullanıcının girdisi kendi nesil sayacını taşır: yükleme
+ * sürerken o kullanıcının listesi değişirse eski sonuç önbelleğe yazılmaz, diğer kullanıcıların yüklemeleri etkilenmez.
+ */
+@Component
+public class MostViewedCache {
+
+    private static final Comparator<PasswordSummary> BY_VIEWS_DESC =
+            Comparator.comparingLong(PasswordSummary::getViewCount).reversed();
+
+    private final Map<Long, CachedTopK> entries = new ConcurrentHashMap<>();
+
+    @Value("${views.top-k.enabled:true}")
+    private boolean enabled;
+
+    @Value("${views.top-k.size:10}")
+    private int size; // Önbellekte tutulan K; daha büyük limitler doğrudan sorgulanır
+
+    @Value("${views.top-k.max-users:10000}")
+    private int maxUsers;
+
+    @Value("${views.top-k.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    public int getSize() {
+        return size;
+    }
+
+    /** loader en fazla {@link #getSize()} girdiyi görüntülenme sayısına göre azalan sırada döndürmelidir. */
+    public List<PasswordSummary> get(Long userId, int limit, Supplier<List<PasswordSummary>> loader) {
+        if (!enabled || limit > size) {
+            return null;
+        }
+        CachedTopK cached = entries.get(userId);
+        if (cached != null && cached.items != null && !cached.isExpired()) {
+            return cached.items.subList(0, Math.min(limit, cached.items.size()));
+        }
+        // Yükleme sürerken gelen invalidation'ların sayacı artırabilmesi için girdi (gerekirse boş) önceden yerleştirilir
+        long observedGeneration = entries.computeIfAbsent(userId, id -> new CachedTopK(null, expiry(), 0)).generation;
+        List<PasswordSummary> loaded = List.copyOf(loader.get());
+        entries.computeIfPresent(userId, (id, current) -> current.generation == observedGeneration
+                ? new CachedTopK(loaded, expiry(), observedGeneration)
+                : current);
+        if (entries.size() > maxUsers) {
+            trim();
+        }
+        return loaded.subList(0, Math.min(limit, loaded.size()));
+    }
+
+    /** Görüntülenme artışı veritabanına yazıldıktan sonra çağrılır. */
+    public void onViewsFlushed(Long userId, Long passwordId, long delta) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        entries.computeIfPresent(userId, (id, cached) -> {
+            if (cached.items == null) {
+                return cached.invalidated(); // Sürmekte olan yükleme artıştan önceki sayıları okumuş olabilir
+            }
+            List<PasswordSummary> items = new ArrayList<>(cached.items.size());
+            boolean found = false;
+            for (PasswordSummary item : cached.items) {
+                if (item.getId().equals(passwordId)) {
+                    PasswordSummary bumped = new PasswordSummary(item.getId(), item.getCategoryId(), item.getCategoryName(),
+                            item.getTitle(), item.getUsername(), item.getDescription(), item.getStatus(), item.isFeatured(),
+                            item.getViewCount() + delta);
+                    items.add(bumped);
+                    found = true;
+                } else {
+                    items.add(item);
+                }
+            }
+            if (!found) {
+                return cached.invalidated(); // Listeye girip girmediği bilinemez; bir sonraki okumada yeniden yüklenir
+            }
+            items.sort(BY_VIEWS_DESC);
+            return new CachedTopK(List.copyOf(items), cached.expiresAt, cached.generation + 1);
+        });
+    }
+
+    /** Kullanıcının şifreleri eklendiğinde, değiştirildiğinde veya silindiğinde çağrılır. */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        invalidate(userId);
+        // Commit'ten önce başka bir isteğin eski listeyi yeniden yüklemesine karşı commit sonrasında tekrar silinir
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(userId);
+                }
+            });
+        }
+    }
+
+    // Girdi silinmez, listesi boşaltılıp sayacı artırılır; böylece sürmekte olan yükleme sonucunu yazamaz
+    private void invalidate(Long userId) {
+        entries.computeIfPresent(userId, (id, cached) -> cached.invalidated());
+    }
+
+    private long expiry() {
+        return System.currentTimeMillis() + ttlSeconds * 1000;
+    }
+
+    private void trim() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(cached -> cached.expiresAt <= now);
+        Iterator<Long> keys = entries.keySet().iterator();
+        while (entries.size() > maxUsers && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static final class CachedTopK {
+        private final List<PasswordSummary> items; // null: geçersiz kılındı veya yükleniyor
+        private final long expiresAt;
+        private final long generation;
+
+        private CachedTopK(List<PasswordSummary> items, long expiresAt, long generation) {
+            this.items = items;
+            this.expiresAt = expiresAt;
+            this.generation = generation;
+        }
+
+        private CachedTopK invalidated() {
+            return new CachedTopK(null, expiresAt, generation + 1);
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
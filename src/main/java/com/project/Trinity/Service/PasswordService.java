@@ -1,5 +1,7 @@
 package com.project.Trinity.Service;
 
+import com.project.Trinity.Config.JdbcConfig;
+import com.project.Trinity.DTO.PasswordSummary;
 import com.project.Trinity.Entity.Status;
 import com.project.Trinity.Entity.Category;
 import com.project.Trinity.Entity.Password;
@@ -9,12 +11,17 @@ import com.project.Trinity.Repository.PasswordRepository;
 import com.project.Trinity.Util.EncryptionUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -26,11 +33,22 @@ public class PasswordService {
     private final PasswordRepository passwordRepository;
     private final CategoryRepository categoryRepository;
     private final EncryptionUtil encryptionUtil; // Enjekte ediliyor
-
-    public PasswordService(PasswordRepository passwordRepository, CategoryRepository categoryRepository, EncryptionUtil encryptionUtil) {
+    private final JdbcTemplate streamingJdbcTemplate; // Akışlı listeleme; sonuçlar cursor ile okunur (bkz. JdbcConfig)
+    private final ViewCountBuffer viewCountBuffer;
+    private final MostViewedCache mostViewedCache;
+    private final DashboardStats dashboardStats;
+
+    public PasswordService(PasswordRepository passwordRepository, CategoryRepository categoryRepository, EncryptionUtil encryptionUtil,
+                           @Qualifier(JdbcConfig.STREAMING_JDBC_TEMPLATE) JdbcTemplate streamingJdbcTemplate,
+                           ViewCountBuffer viewCountBuffer, MostViewedCache mostViewedCache,
+                           DashboardStats dashboardStats) {
         this.passwordRepository = passwordRepository;
         this.categoryRepository = categoryRepository;
         this.encryptionUtil = encryptionUtil;
+        this.streamingJdbcTemplate = streamingJdbcTemplate;
+        this.viewCountBuffer = viewCountBuffer;
+        this.mostViewedCache = mostViewedCache;
+        this.dashboardStats = dashboardStats;
     }
 
     @Transactional
@@ -42,11 +60,15 @@ public class PasswordService {
                 .orElseThrow(() -> new IllegalArgumentException("Aktif kategori bulunamadı: " + categoryId));
 
         Password password;
+        Long oldCategoryId = null;
+        Status oldStatus = null;
         if (id != null) {
             password = passwordRepository.findById(id)
                     .filter(p -> p.getCreatedBy().getId().equals(currentUser.getId()))
                     .filter(p -> p.getStatus() == Status.ACTIVE)
                     .orElseThrow(() -> new IllegalArgumentException("Aktif şifre bulunamadı veya yetkiniz yok: " + id));
+            oldCategoryId = password.getCategory().getId();
+            oldStatus = password.getStatus();
             logger.info("Şifre güncelleniyor: id={}, başlık={}", id, title);
         } else {
             password = new Password();
@@ -68,19 +90,52 @@ public class PasswordService {
         password.setDescription(description);
         password.setStatus(status != null ? Status.valueOf(status) : Status.ACTIVE);
 
+        if (id == null) {
+            dashboardStats.passwordCreated(category.getId(), password.getStatus());
+        } else {
+            dashboardStats.passwordChanged(oldCategoryId, oldStatus, category.getId(), password.getStatus());
+        }
+        mostViewedCache.evict(password.getUser().getId());
         return passwordRepository.save(password);
     }
 
     @Transactional(readOnly = true)
-    public List<Password> getUserPasswords() {
+    public List<PasswordSummary> getUserPasswords() {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        return passwordRepository.findByCreatedByAndStatus(currentUser, Status.ACTIVE);
+        return passwordRepository.findSummariesByCreatedBy(currentUser.getId(), Status.ACTIVE);
     }
 
     @Transactional(readOnly = true)
-    public List<Password> getPasswordsByCategory(String categoryName) {
+    public List<PasswordSummary> getUserPasswordsPage(long afterId, int size) {
         User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
-        return passwordRepository.findByUserAndCategoryNameAndStatus(currentUser, categoryName, Status.ACTIVE);
+        return passwordRepository.findSummaryPageByCreatedBy(currentUser.getId(), Status.ACTIVE, afterId, PageRequest.of(0, size));
+    }
+
+    /**
+     * Kullanıcının aktif şifrelerini tamamını belleğe almadan, JDBC cursor üzerinden okundukça consumer'a verir.
+     */
+    @Transactional(readOnly = true)
+    public void streamUserPasswords(Long userId, Consumer<PasswordSummary> consumer) {
+        streamingJdbcTemplate.query(
+                "SELECT p.id, p.category_id, c.name AS category_name, p.title, p.username, p.description, p.status, p.is_featured " +
+                "FROM passwords p JOIN categories c ON c.id = p.category_id " +
+                "WHERE p.created_by = ? AND p.status = 'ACTIVE' ORDER BY p.id",
+                (RowCallbackHandler) rs -> consumer.accept(new PasswordSummary(
+                        rs.getLong("id"),
+                        rs.getLong("category_id"),
+                        rs.getString("category_name"),
+                        rs.getString("title"),
+                        rs.getString("username"),
+                        rs.getString("description"),
+                        Status.valueOf(rs.getString("status")),
+                        rs.getBoolean("is_featured"))),
+                userId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PasswordSummary> getPasswordsByCategory(String categoryName) {
+        User currentUser = (User) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return passwordRepository.findSummariesByUserAndCategoryName(currentUser.getId(), categoryName, Status.ACTIVE);
     }
 
     @Transactional(readOnly = true)
@@ -101,6 +156,8 @@ public class PasswordService {
             .filter(c -> c.getStatus() == Status.ACTIVE)
             .orElseThrow(() -> new IllegalArgumentException("Aktif kategori bulunamadı: " + categoryId));
 
+        dashboardStats.passwordChanged(existingPassword.getCategory().getId(), existingPassword.getStatus(),
+                category.getId(), Status.valueOf(status));
         existingPassword.setCategory(category);
         existingPassword.setTitle(title);
         existingPassword.setUsername(username);
@@ -114,6 +171,7 @@ public class PasswordService {
         existingPassword.setStatus(Status.valueOf(status));
         existingPassword.setDescription(description);
 
+        mostViewedCache.evict(existingPassword.getUser().getId());
         return passwordRepository.save(existingPassword);
     }
 
@@ -128,6 +186,8 @@ public class PasswordService {
 
         password.setStatus(Status.INACTIVE);
         passwordRepository.save(password);
+        dashboardStats.passwordChanged(password.getCategory().getId(), Status.ACTIVE, password.getCategory().getId(), Status.INACTIVE);
+        mostViewedCache.evict(password.getUser().getId());
         logger.info("Şifre pasif edildi: id={}", id);
     }
 
@@ -142,13 +202,9 @@ public class PasswordService {
         return encryptionUtil.decrypt(password.getPassword());
     }
     
-    @Transactional
-    public void incrementViewCount(Long passwordId) {
-        Password password = passwordRepository.findById(passwordId)
-                .orElseThrow(() -> new IllegalArgumentException("Şifre bulunamadı: " + passwordId));
-        password.setViewCount(password.getViewCount() + 1);
-        password.setLastUsed(LocalDateTime.now()); // lastUsed alanını da güncelleyelim
-        passwordRepository.save(password);
+    // Sayaç bellekte biriktirilir ve ViewCountBuffer tarafından toplu yazılır; görüntüleme isteği satır yazmaz
+    public void incrementViewCount(Long passwordId, Long userId) {
+        viewCountBuffer.record(passwordId, userId);
     }
 
     @Transactional
@@ -158,19 +214,25 @@ public class PasswordService {
         logger.info("Öne çıkarma güncelleniyor: id={}, isFeatured={}", passwordId, isFeatured);
         password.setIsFeatured(isFeatured);
         Password savedPassword = passwordRepository.save(password);
+        mostViewedCache.evict(savedPassword.getUser().getId());
         logger.info("Kaydedilen şifre: id={}, isFeatured={}", savedPassword.getId(), savedPassword.getIsFeatured());
         return savedPassword;
     }
 
-    public List<Password> getMostViewedPasswordsByUser(User user, int limit) {
-        return passwordRepository.findByUserAndStatusOrderByViewCountDesc(user, Status.ACTIVE)
-                .stream()
-                .limit(limit)
-                .collect(Collectors.toList());
+    // İlk K önbellekten okunur; önbellekten büyük limitler doğrudan indeksli LIMIT sorgusuna gider
+    @Transactional(readOnly = true)
+    public List<PasswordSummary> getMostViewedPasswordsByUser(User user, int limit) {
+        List<PasswordSummary> cached = mostViewedCache.get(user.getId(), limit, () -> passwordRepository
+                .findMostViewedSummariesByUser(user.getId(), Status.ACTIVE, PageRequest.of(0, mostViewedCache.getSize())));
+        if (cached != null) {
+            return cached;
+        }
+        return passwordRepository.findMostViewedSummariesByUser(user.getId(), Status.ACTIVE, PageRequest.of(0, limit));
     }
 
-    public List<Password> getFeaturedPasswordsByUser(User user) {
-        return passwordRepository.findByUserAndIsFeaturedTrueAndStatus(user, Status.ACTIVE);
+    @Transactional(readOnly = true)
+    public List<PasswordSummary> getFeaturedPasswordsByUser(User user) {
+        return passwordRepository.findFeaturedSummariesByUser(user.getId(), Status.ACTIVE);
     }
 
     @Transactional(readOnly = true)
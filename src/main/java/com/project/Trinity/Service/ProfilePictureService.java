@@ -0,0 +1,255 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.DTO.ProfilePictureInfo;
+import com.project.Trinity.Entity.JobCheckpoint;
+import com.project.Trinity.Entity.ProfilePicture;
+import com.project.Trinity.Entity.ProfilePictureSize;
+import com.project.Trinity.Repository.JobCheckpointRepository;
+import com.project.Trinity.Repository.ProfilePictureRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Profil resimlerini profile_pictures tablosunda, içerik özetiyle birlikte saklar. Yüklemeler {@link ImagePipeline}
+ * ile sabit boyutlu JPEG varyantlarına dönüştürülür; özgün dosya saklanmaz. Meta veri sorguları resim verisini
+ * okumaz; veri yalnızca resmin kendisi istendiğinde yüklenir. Aynı içerik tekrar yüklenirse satır değişmez, böylece
+ * ETag/Last-Modified sabit kalır ve istemci önbelleği geçerliliğini korur.
+ */
+@Service
+public class ProfilePictureService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfilePictureService.class);
+    private static final String MIGRATION_JOB = "profile-picture-migration";
+    private static final String UNKNOWN_CONTENT_TYPE = "application/octet-stream";
+    private static final String NORMALIZED_CONTENT_TYPE = "image/jpeg";
+
+    private final ProfilePictureRepository profilePictureRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobCheckpointRepository checkpointRepository;
+    private final ImagePipeline imagePipeline;
+
+    @Value("${profile-picture.max-upload-bytes:10485760}")
+    private long maxUploadBytes;
+
+    @Value("${profile-picture.migration-batch-size:100}")
+    private int migrationBatchSize;
+
+    public ProfilePictureService(ProfilePictureRepository profilePictureRepository, JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate, JobCheckpointRepository checkpointRepository,
+                                 ImagePipeline imagePipeline) {
+        this.profilePictureRepository = profilePictureRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.imagePipeline = imagePipeline;
+    }
+
+    /**
+     * Yüklemeyi geçici dosyaya aktarır (multipart parçası zaten diskte olduğundan genellikle taşıma), resim hattından
+     * geçirir ve yalnızca normalize edilmiş varyantları saklar. İşleme sırasında veritabanı bağlantısı tutulmaz.
+     */
+    public void save(Long userId, MultipartFile upload) throws IOException {
+        if (upload == null || upload.isEmpty()) {
+            throw new IllegalArgumentException("Profil resmi boş olamaz");
+        }
+        if (upload.getSize() > maxUploadBytes) {
+            throw new IllegalArgumentException("Profil resmi en fazla " + (maxUploadBytes / (1024 * 1024)) + " MB olabilir");
+        }
+        Path temp = Files.createTempFile("profile-picture-", ".upload");
+        try {
+            upload.transferTo(temp);
+            store(userId, imagePipeline.normalize(temp));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void store(Long userId, Map<ProfilePictureSize, byte[]> variants) {
+        byte[] medium = variants.get(ProfilePictureSize.MEDIUM);
+        String contentHash = sha256(medium);
+        Optional<ProfilePictureInfo> current = profilePictureRepository.findInfoByUserId(userId);
+        if (current.isPresent() && current.get().getContentHash().equals(contentHash)) {
+            return;
+        }
+        ProfilePicture picture = new ProfilePicture();
+        picture.setUserId(userId);
+        picture.setContentHash(contentHash);
+        picture.setContentType(NORMALIZED_CONTENT_TYPE);
+        picture.setSizeBytes(medium.length);
+        picture.setUpdatedAt(LocalDateTime.now());
+        picture.setData(medium);
+        picture.setThumbnail(variants.get(ProfilePictureSize.SMALL));
+        profilePictureRepository.save(picture);
+    }
+
+    public Optional<ProfilePictureInfo> findInfo(Long userId) {
+        return profilePictureRepository.findInfoByUserId(userId);
+    }
+
+    public Map<Long, ProfilePictureInfo> findInfo(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return profilePictureRepository.findInfoByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(ProfilePictureInfo::getUserId, Function.identity()));
+    }
+
+    /** Normalize edilmemiş eski satırlarda küçük varyant yoktur; bu durumda asıl resim döner. */
+    public Optional<byte[]> loadData(Long userId, ProfilePictureSize size) {
+        if (size == ProfilePictureSize.SMALL) {
+            Optional<byte[]> thumbnail = profilePictureRepository.findThumbnailByUserId(userId);
+            if (thumbnail.isPresent()) {
+                return thumbnail;
+            }
+        }
+        return profilePictureRepository.findDataByUserId(userId);
+    }
+
+    @Transactional
+    public void delete(Long userId) {
+        profilePictureRepository.deleteByUserId(userId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        migrateLegacyColumn();
+        normalizeStoredPictures();
+    }
+
+    /**
+     * Eski users.profile_picture kolonu varsa resimleri parça parça profile_pictures tablosuna taşır ve kolonu kaldırır.
+     * Her parça ve checkpoint aynı transaction'da yazılır; yarıda kesilirse kaldığı yerden devam eder.
+     */
+    private void migrateLegacyColumn() {
+        Boolean legacyColumn = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM information_schema.columns " +
+                "WHERE table_name = 'users' AND column_name = 'profile_picture')", Boolean.class);
+        if (legacyColumn != Boolean.TRUE) {
+            return;
+        }
+        JobCheckpoint checkpoint = checkpointRepository.findById(MIGRATION_JOB).orElseGet(() -> new JobCheckpoint(MIGRATION_JOB));
+        long migrated = 0;
+        while (!checkpoint.isCompleted()) {
+            long afterId = checkpoint.getLastId();
+            List<LegacyPicture> batch = jdbcTemplate.query(
+                    "SELECT id, profile_picture FROM users WHERE id > ? AND profile_picture IS NOT NULL ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new LegacyPicture(rs.getLong("id"), rs.getBytes("profile_picture")),
+                    afterId, migrationBatchSize);
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Object[]> args = new ArrayList<>(batch.size());
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                for (LegacyPicture picture : batch) {
+                    args.add(new Object[]{picture.userId(), sha256(picture.data()), detectContentType(picture.data()),
+                            picture.data().length, now, picture.data()});
+                }
+                if (!args.isEmpty()) {
+                    jdbcTemplate.batchUpdate("INSERT INTO profile_pictures (user_id, content_hash, content_type, size_bytes, updated_at, data) " +
+                            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (user_id) DO NOTHING", args);
+                }
+                checkpoint.setLastId(batch.isEmpty() ? afterId : batch.get(batch.size() - 1).userId());
+                checkpoint.setCompleted(batch.size() < migrationBatchSize);
+                checkpoint.setUpdatedAt(LocalDateTime.now());
+                checkpointRepository.save(checkpoint);
+            });
+            migrated += batch.size();
+        }
+        jdbcTemplate.execute("ALTER TABLE users DROP COLUMN IF EXISTS profile_picture");
+        logger.info("Migrated {} profile pictures out of the users table", migrated);
+    }
+
+    /**
+     * Resim hattından geçmemiş (küçük varyantı olmayan) satırları normalize eder. Okunamayan resimler olduğu gibi
+     * bırakılır ve bir sonraki açılışta yeniden denenir.
+     */
+    private void normalizeStoredPictures() {
+        long afterId = 0;
+        long normalized = 0;
+        while (true) {
+            List<Long> userIds = jdbcTemplate.queryForList(
+                    "SELECT user_id FROM profile_pictures WHERE thumbnail IS NULL AND user_id > ? ORDER BY user_id LIMIT ?",
+                    Long.class, afterId, migrationBatchSize);
+            for (Long userId : userIds) {
+                try {
+                    Optional<byte[]> data = profilePictureRepository.findDataByUserId(userId);
+                    if (data.isPresent()) {
+                        store(userId, imagePipeline.normalize(data.get()));
+                        normalized++;
+                    }
+                } catch (IllegalArgumentException | ImageProcessingBusyException e) {
+                    logger.warn("Stored profile picture of user {} could not be normalized: {}", userId, e.getMessage());
+                }
+            }
+            if (userIds.size() < migrationBatchSize) {
+                break;
+            }
+            afterId = userIds.get(userIds.size() - 1);
+        }
+        if (normalized > 0) {
+            logger.info("Normalized {} stored profile pictures", normalized);
+        }
+    }
+
+    private static String detectContentType(byte[] data) {
+        if (startsWith(data, 0, 0x89, 'P', 'N', 'G')) {
+            return "image/png";
+        }
+        if (startsWith(data, 0, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(data, 0, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (startsWith(data, 0, 'R', 'I', 'F', 'F') && startsWith(data, 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
+        }
+        return UNKNOWN_CONTENT_TYPE;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, int... signature) {
+        if (data.length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((data[offset + i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 desteklenmiyor", e);
+        }
+    }
+
+    private record LegacyPicture(long userId, byte[] data) {
+    }
+}
@@ -1,80 +1,215 @@
-
 package com.project.Trinity.Service;
 
 
 import com.project.Trinity.Entity.User;
 
-import com.project.Trinity.Repository.UserRepository;
 import com.project.Trinity.Util.JwtUtil;
 
-import jakarta.transaction.Transactional;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import com.project.Trinity.Entity.RefreshToken;
-import com.project.Trinity.Repository.RefreshTokenRepository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Refresh token oluşturma ve doğrulama. Token'lar yalnızca SHA-256 özeti olarak saklanır; her giriş (cihaz) kendi
+ * satırını alır ve kullanıcı başına en fazla max-per-user token tutulur, fazlası en eskiden başlanarak silinir. Doğrulanan token'lar özet anahtarıyla boyut sınırlı bir önbellekte
+ * tutulur: kayıt token süresi ya da cache-ttl-seconds (hangisi önceyse) dolunca veya token yenilenip silindiğinde düşer.
+ * Başka bir düğümde iptal edilen token bu düğümde en fazla cache-ttl-seconds boyunca geçerli kalabilir.
+ * Süresi dolan satırları ExpirySweeper parça parça siler.
+ */
 @Service
-public class RefreshTokenService {//Refresh token oluşturma, doğrulama ve temizleme işlemlerini yönetir.
+public class RefreshTokenService {
 
     private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
-    private final RefreshTokenRepository refreshTokenRepository;
-    private final UserRepository userRepository;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO refresh_token (token_hash, user_id, expiry_date) VALUES (?, ?, ?) " +
+            "ON CONFLICT (token_hash) DO UPDATE SET expiry_date = EXCLUDED.expiry_date";
+    // Süresi dolmuş token'lar ve en yeni max-per-user token dışında kalanlar silinir
+    private static final String PRUNE_SQL =
+            "DELETE FROM refresh_token WHERE user_id = ? AND (expiry_date <= ? OR id NOT IN " +
+            "(SELECT id FROM refresh_token WHERE user_id = ? ORDER BY id DESC LIMIT ?))";
+    private static final String LOOKUP_SQL =
+            "SELECT t.user_id, u.username, t.expiry_date FROM refresh_token t JOIN users u ON u.id = t.user_id " +
+            "WHERE t.token_hash = ?";
+    private static final int TOKEN_BYTES = 32;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserDetailsCache userDetailsCache;
     private final JwtUtil jwtUtil;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final ThreadLocal<MessageDigest> sha256 = ThreadLocal.withInitial(RefreshTokenService::newDigest);
+
+    private final Map<String, CachedToken> verified = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    // Her invalidation'da artar; DB okuması sürerken yenilenen token'ın eski özeti önbelleğe yazılmaz
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${refresh-token.validity-days:7}")
+    private long validityDays;
+
+    @Value("${refresh-token.max-per-user:5}")
+    private int maxPerUser;
+
+    @Value("${refresh-token.cache.max-size:50000}")
+    private int cacheMaxSize;
 
-    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository, JwtUtil jwtUtil) {
-        this.refreshTokenRepository = refreshTokenRepository;
-        this.userRepository = userRepository;
+    @Value("${refresh-token.cache.ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    public RefreshTokenService(JdbcTemplate jdbcTemplate, UserDetailsCache userDetailsCache, JwtUtil jwtUtil) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userDetailsCache = userDetailsCache;
         this.jwtUtil = jwtUtil;
     }
 
+    /**
+     * Kullanıcı için yeni bir refresh token üretir. Ham token saklanmadığı için mevcut token geri döndürülemez;
+     * diğer cihazlardaki token'lar geçerli kalır, yalnızca sınırı aşan en eski token'lar silinir.
+     */
     public String createRefreshToken(String username) {
-        User user = userRepository.findByUsername(username)
+        User user = userDetailsCache.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
 
-        Optional<RefreshToken> existingToken = refreshTokenRepository.findByUser(user);
-        if (existingToken.isPresent() && existingToken.get().getExpiryDate().isAfter(LocalDateTime.now())) {
-            return existingToken.get().getToken();
-        } else if (existingToken.isPresent()) {
-            refreshTokenRepository.delete(existingToken.get());
+        byte[] random = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(random);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update(UPSERT_SQL, hash(token), user.getId(), Timestamp.valueOf(now.plusDays(validityDays)));
+        int pruned = jdbcTemplate.update(PRUNE_SQL, user.getId(), Timestamp.valueOf(now), user.getId(), Math.max(1, maxPerUser));
+        if (pruned > 0) {
+            evictUser(user.getId()); // Silinen token'lar önbellekte kalmasın
         }
-
-        String token = UUID.randomUUID().toString();
-        RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setToken(token);
-        refreshToken.setUser(user);
-        refreshToken.setExpiryDate(LocalDateTime.now().plusDays(7));
-        refreshTokenRepository.save(refreshToken);
-        logger.info("New refresh token created for user: {}", username);
+        logger.info("Refresh token issued for user: {}", username);
         return token;
     }
 
-    public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token)
-                .filter(t -> t.getExpiryDate() != null && t.getExpiryDate().isAfter(LocalDateTime.now()));
+    public void deleteByUserId(Long userId) {
+        jdbcTemplate.update("DELETE FROM refresh_token WHERE user_id = ?", userId);
+        evictUser(userId);
+        logger.info("Refresh tokens deleted for user id: {}", userId);
+    }
+
+    /** Kullanıcının önbellekteki token'ını düşürür; transaction içinde çağrılırsa commit sonrasında da tekrarlanır. */
+    public void evictUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        Runnable removal = () -> {
+            generation.incrementAndGet();
+            if (verified.values().removeIf(entry -> userId.equals(entry.userId()))) {
+                evictions.increment();
+            }
+        };
+        removal.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    removal.run();
+                }
+            });
+        }
     }
 
-    public void deleteByUser(User user) {
-        refreshTokenRepository.deleteByUser(user);
-        logger.info("Refresh tokens deleted for user: {}", user.getUsername());
+    public void evictUsers(List<Long> userIds) {
+        userIds.forEach(this::evictUser);
     }
 
     public String generateNewAccessToken(String refreshToken) {
-        return findByToken(refreshToken)
-                .map(RefreshToken::getUser)
-                .map(user -> jwtUtil.generateToken(user))
+        CachedToken token = verify(refreshToken);
+        if (token == null) {
+            throw new InvalidRefreshTokenException("Geçersiz veya süresi dolmuş yenileme token'ı");
+        }
+        return userDetailsCache.findByUsername(token.username())
+                .map(jwtUtil::generateToken)
                 .orElseThrow(() -> new InvalidRefreshTokenException("Geçersiz veya süresi dolmuş yenileme token'ı"));
-    }//@Transactional: Veritabanı işlemini güvenli yapar.
-    @Transactional
-    @Scheduled(cron = "0 0 2 * * ?") // Her gün 02:00’de
-    public void cleanExpiredTokens() {
-        refreshTokenRepository.deleteByExpiryDateBefore(LocalDateTime.now());
-        logger.info("Expired refresh tokens cleaned");
     }
-}
\ No newline at end of file
+
+    private CachedToken verify(String refreshToken) {
+        String tokenHash = hash(refreshToken);
+        long now = System.currentTimeMillis();
+        CachedToken cached = verified.get(tokenHash);
+        if (cached != null) {
+            if (cached.cachedUntil() > now) {
+                hits.increment();
+                return cached;
+            }
+            verified.remove(tokenHash, cached);
+        }
+        misses.increment();
+        long observedGeneration = generation.get();
+        List<CachedToken> rows = jdbcTemplate.query(LOOKUP_SQL, (rs, rowNum) -> {
+            long expiresAt = rs.getTimestamp("expiry_date").getTime();
+            return new CachedToken(rs.getLong("user_id"), rs.getString("username"),
+                    Math.min(expiresAt, now + cacheTtlSeconds * 1000), expiresAt);
+        }, tokenHash);
+        if (rows.isEmpty() || rows.get(0).expiresAt() <= now) {
+            return null;
+        }
+        CachedToken token = rows.get(0);
+        if (generation.get() == observedGeneration) {
+            verified.put(tokenHash, token);
+            if (verified.size() > cacheMaxSize) {
+                trim(now);
+            }
+        }
+        return token;
+    }
+
+    private void trim(long now) {
+        verified.values().removeIf(entry -> entry.cachedUntil() <= now);
+        Iterator<String> keys = verified.keySet().iterator();
+        while (verified.size() > cacheMaxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) verified.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    private String hash(String token) {
+        return HexFormat.of().formatHex(sha256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 desteklenmiyor", e);
+        }
+    }
+
+    private record CachedToken(long userId, String username, long cachedUntil, long expiresAt) {
+    }
+}
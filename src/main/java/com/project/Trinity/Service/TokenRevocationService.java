@@ -0,0 +1,97 @@
+package com.project.Trinity.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Durumsuz (claim tabanlı) yetkilendirmede dondurulan/silinen/şifresi sıfırlanan kullanıcıların token'larını geçersiz kılar.
+ * Sınır users.tokens_valid_after kolonunda (epoch ms) saklanır; yeniden başlatmadan sonra ve tüm düğümlerde geçerlidir.
+ * Okunan sınırlar kullanıcı başına cache-ttl-seconds boyunca önbellekte tutulur: başka bir düğümdeki iptal bu düğümde
+ * en geç bu süre sonra görülür, kendi düğümündeki iptal hemen uygulanır. Satırı olmayan (silinmiş) kullanıcının
+ * token'ları reddedilir.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, Cutoff> cutoffs = new ConcurrentHashMap<>();
+
+    @Value("${jwt.revocation.cache-ttl-seconds:30}")
+    private long cacheTtlSeconds;
+
+    @Value("${jwt.revocation.cache-max-size:100000}")
+    private int cacheMaxSize;
+
+    public TokenRevocationService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void revokeUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        // Bu milisaniyede ve öncesinde üretilen token'lar geçersiz; sonraki girişte alınan token geçerli
+        long validAfter = System.currentTimeMillis() + 1;
+        jdbcTemplate.update("UPDATE users SET tokens_valid_after = GREATEST(COALESCE(tokens_valid_after, 0), ?) WHERE id = ?",
+                validAfter, userId);
+        remember(userId, new Cutoff(validAfter, true, System.currentTimeMillis() + cacheTtlSeconds * 1000));
+        logger.info("Access tokens revoked for user id: {}", userId);
+    }
+
+    /** issuedAtMillis, token'ın milisaniye hassasiyetli üretim zamanıdır (bkz. VerifiedToken#getIssuedAtMillis). */
+    public boolean isRevoked(Long userId, Long issuedAtMillis) {
+        if (userId == null || issuedAtMillis == null) {
+            return true; // Kimliği veya üretim zamanı olmayan token doğrulanamaz
+        }
+        long now = System.currentTimeMillis();
+        Cutoff cutoff = cutoffs.get(userId);
+        if (cutoff == null || cutoff.cachedUntil() <= now) {
+            cutoff = remember(userId, load(userId, now));
+        }
+        return !cutoff.exists() || issuedAtMillis < cutoff.validAfter();
+    }
+
+    private Cutoff load(Long userId, long now) {
+        List<Long> rows = jdbcTemplate.query("SELECT COALESCE(tokens_valid_after, 0) FROM users WHERE id = ?",
+                (rs, rowNum) -> rs.getLong(1), userId);
+        long cachedUntil = now + cacheTtlSeconds * 1000;
+        return rows.isEmpty() ? new Cutoff(Long.MAX_VALUE, false, cachedUntil) : new Cutoff(rows.get(0), true, cachedUntil);
+    }
+
+    // İptalle eş zamanlı okunan eski değer yeni sınırı geri almasın diye birleştirmede en katı değer kalır
+    private Cutoff remember(Long userId, Cutoff cutoff) {
+        Cutoff merged = cutoffs.merge(userId, cutoff, (current, loaded) -> new Cutoff(
+                Math.max(current.validAfter(), loaded.validAfter()),
+                current.exists() && loaded.exists(),
+                loaded.cachedUntil()));
+        if (cutoffs.size() > cacheMaxSize) {
+            purgeExpiredEntries();
+        }
+        return merged;
+    }
+
+    @Scheduled(fixedDelay = 600000)
+    public void purgeExpiredEntries() {
+        long now = System.currentTimeMillis();
+        cutoffs.values().removeIf(cutoff -> cutoff.cachedUntil() <= now);
+        Iterator<Long> keys = cutoffs.keySet().iterator();
+        while (cutoffs.size() > cacheMaxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Cutoff(long validAfter, boolean exists, long cachedUntil) {
+    }
+}
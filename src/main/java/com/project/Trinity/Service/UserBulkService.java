@@ -0,0 +1,375 @@
+package com.project.Trinity.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.Trinity.Config.JdbcConfig;
+import com.project.Trinity.DTO.BulkImportResult;
+import com.project.Trinity.DTO.UserResponse;
+import com.project.Trinity.Entity.AuditAction;
+import com.project.Trinity.Entity.Role;
+import com.project.Trinity.Entity.Status;
+import com.project.Trinity.Util.CsvReader;
+import com.project.Trinity.Util.WorkerPools;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Toplu kullanıcı içe/dışa aktarma. İçe aktarma CSV veya NDJSON akışını parti parti okur; her partide benzersizlik
+ * tek bir küme sorgusuyla (= ANY) kontrol edilir, şifreler sınırlı bir havuzda paralel hash'lenir, satırlar JDBC batch
+ * ile eklenir ve parti başına tek bir özet denetim kaydı yazılır. Hatalı satırlar atlanır ve satır numarasıyla raporlanır.
+ * Kontrol ile ekleme arasında başka bir istekle çakışan satırlar ON CONFLICT ile atlanır ve hata olarak raporlanır;
+ * eklenen sayısı yalnızca RETURNING ile dönen satırlardan hesaplanır.
+ */
+@Service
+public class UserBulkService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserBulkService.class);
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final String INSERT_SQL_PREFIX = "INSERT INTO users (username, password, email, phone, status, role) VALUES ";
+    private static final int MAX_BATCH_SIZE = 5000; // Satır başına 6 parametre; PostgreSQL sınırı 32767
+    private static final String EXISTING_SQL =
+            "SELECT username, email, phone FROM users WHERE username = ANY (?) OR email = ANY (?) OR phone = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate; // Dışa aktarma cursor ile okunur
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final AuditLogWriter auditLogWriter;
+    private final DashboardStats dashboardStats;
+    private final ObjectMapper objectMapper;
+
+    @Value("${bulk.batch-size:500}")
+    private int batchSize;
+
+    @Value("${bulk.hash-threads:0}")
+    private int hashThreads; // 0: işlemci sayısı
+
+    @Value("${bulk.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private ThreadPoolExecutor hashPool;
+
+    public UserBulkService(JdbcTemplate jdbcTemplate,
+                           @Qualifier(JdbcConfig.STREAMING_JDBC_TEMPLATE) JdbcTemplate streamingJdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           PasswordEncoder passwordEncoder, AuditLogWriter auditLogWriter, DashboardStats dashboardStats,
+                           ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = streamingJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.auditLogWriter = auditLogWriter;
+        this.dashboardStats = dashboardStats;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void start() {
+        batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+        hashPool = WorkerPools.callerRuns("bulk-password-hash", WorkerPools.threadCount(hashThreads), batchSize);
+    }
+
+    /** İlk satır başlıktır: username, email, phone, password zorunlu; status ve role isteğe bağlı. Bozuk bir kayıtta içe aktarma durur. */
+    public BulkImportResult importCsv(Reader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("Dosya boş");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("username", "email", "phone", "password")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV başlığında '" + required + "' kolonu yok");
+            }
+        }
+        BulkImportResult result = new BulkImportResult(maxReportedErrors);
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        while (true) {
+            List<String> record;
+            try {
+                record = csv.readRecord();
+            } catch (IllegalArgumentException e) {
+                // Önceki partiler zaten eklendi; bozuk kayıttan sonrası güvenilir biçimde ayrıştırılamaz
+                result.addError(csv.getRecordLine(), "Geçersiz CSV, içe aktarma bu satırda durduruldu: " + e.getMessage());
+                break;
+            }
+            if (record == null) {
+                break;
+            }
+            batch.add(new ImportRow(csv.getRecordLine(), field(record, columns, "username"), field(record, columns, "email"),
+                    field(record, columns, "phone"), field(record, columns, "password"),
+                    field(record, columns, "status"), field(record, columns, "role")));
+            if (batch.size() == batchSize) {
+                importBatch(batch, result);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, result);
+        }
+        return result;
+    }
+
+    /** Satır başına bir JSON nesnesi; alan adları CSV başlığıyla aynıdır. Bozuk bir satırda içe aktarma durur. */
+    public BulkImportResult importNdjson(InputStream input) throws IOException {
+        BulkImportResult result = new BulkImportResult(maxReportedErrors);
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        try (MappingIterator<Map<String, Object>> rows = objectMapper.readerFor(Map.class).readValues(input)) {
+            while (true) {
+                long line;
+                Map<String, Object> row;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    // hasNextValue parser'ı nesnenin ilk token'ına taşır; öncesinde konum önceki nesnenin sonundadır
+                    line = rows.getParser().getTokenLocation().getLineNr();
+                    row = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    long errorLine = e.getLocation() != null ? e.getLocation().getLineNr() : rows.getCurrentLocation().getLineNr();
+                    result.addError(errorLine, "Geçersiz JSON, içe aktarma bu satırda durduruldu: " + e.getOriginalMessage());
+                    break;
+                }
+                batch.add(new ImportRow(line, text(row, "username"), text(row, "email"), text(row, "phone"),
+                        text(row, "password"), text(row, "status"), text(row, "role")));
+                if (batch.size() == batchSize) {
+                    importBatch(batch, result);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(batch, result);
+        }
+        return result;
+    }
+
+    private void importBatch(List<ImportRow> batch, BulkImportResult result) {
+        List<ImportRow> candidates = new ArrayList<>(batch.size());
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        for (ImportRow raw : batch) {
+            ImportRow row = raw.trimmed();
+            String error = validate(row);
+            if (error == null && (usernames.contains(row.username()) || emails.contains(row.email()) || phones.contains(row.phone()))) {
+                error = "Kullanıcı adı, e-posta veya telefon dosyada tekrar ediyor";
+            }
+            if (error != null) {
+                result.addError(row.line(), error);
+                continue;
+            }
+            usernames.add(row.username());
+            emails.add(row.email());
+            phones.add(row.phone());
+            candidates.add(row);
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Existing existing = findExisting(usernames, emails, phones);
+        List<ImportRow> rows = new ArrayList<>(candidates.size());
+        for (ImportRow row : candidates) {
+            if (existing.usernames().contains(row.username())) {
+                result.addError(row.line(), "Kullanıcı adı zaten mevcut: " + row.username());
+            } else if (existing.emails().contains(row.email())) {
+                result.addError(row.line(), "Email zaten mevcut: " + row.email());
+            } else if (existing.phones().contains(row.phone())) {
+                result.addError(row.line(), "Telefon zaten mevcut: " + row.phone());
+            } else {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = hashPasswords(rows);
+        Integer inserted = transactionTemplate.execute(status -> {
+            // Tek çok satırlı INSERT; batch yeniden yazımında (reWriteBatchedInserts) satır bazında sayı alınamadığı için
+            // gerçekten eklenen satırlar RETURNING ile okunur
+            Set<String> insertedUsernames = new HashSet<>(jdbcTemplate.queryForList(insertSql(args.size()), String.class,
+                    args.stream().flatMap(Arrays::stream).toArray()));
+            for (ImportRow row : rows) {
+                if (!insertedUsernames.contains(row.username())) {
+                    result.addError(row.line(), "Kullanıcı eş zamanlı olarak başka bir istekle eklendi");
+                }
+            }
+            int count = insertedUsernames.size();
+            if (count > 0) {
+                auditLogWriter.record(AuditAction.USERS_IMPORTED, null, "Toplu içe aktarma: " + count
+                        + " kullanıcı eklendi (satır " + rows.get(0).line() + "-" + rows.get(rows.size() - 1).line() + ")");
+                dashboardStats.usersCreated(count);
+            }
+            return count;
+        });
+        result.addImported(inserted != null ? inserted : 0);
+    }
+
+    private static String insertSql(int rowCount) {
+        return INSERT_SQL_PREFIX + String.join(", ", Collections.nCopies(rowCount, "(?, ?, ?, ?, ?, ?)"))
+                + " ON CONFLICT DO NOTHING RETURNING username";
+    }
+
+    private Existing findExisting(Set<String> usernames, Set<String> emails, Set<String> phones) {
+        Existing existing = new Existing(new HashSet<>(), new HashSet<>(), new HashSet<>());
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(EXISTING_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar", usernames.toArray()));
+            statement.setArray(2, connection.createArrayOf("varchar", emails.toArray()));
+            statement.setArray(3, connection.createArrayOf("varchar", phones.toArray()));
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            if (usernames.contains(rs.getString("username"))) {
+                existing.usernames().add(rs.getString("username"));
+            }
+            if (emails.contains(rs.getString("email"))) {
+                existing.emails().add(rs.getString("email"));
+            }
+            if (phones.contains(rs.getString("phone"))) {
+                existing.phones().add(rs.getString("phone"));
+            }
+        });
+        return existing;
+    }
+
+    // BCrypt bilinçli olarak yavaştır; parti içindeki şifreler havuzda paralel hash'lenir
+    private List<Object[]> hashPasswords(List<ImportRow> rows) {
+        List<Future<String>> hashes = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            hashes.add(hashPool.submit(() -> passwordEncoder.encode(row.password())));
+        }
+        List<Object[]> args = new ArrayList<>(rows.size());
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                ImportRow row = rows.get(i);
+                args.add(new Object[]{row.username(), hashes.get(i).get(), row.email(), row.phone(),
+                        statusOf(row).name(), roleOf(row).name()});
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            hashes.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Toplu içe aktarma kesildi", e);
+        } catch (ExecutionException e) {
+            hashes.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Şifre hash'lenemedi", e.getCause());
+        }
+        return args;
+    }
+
+    private static String validate(ImportRow row) {
+        if (row.username() == null || row.username().length() < 3 || row.username().length() > 20) {
+            return "Kullanıcı adı 3-20 karakter olmalı";
+        }
+        if (row.email() == null || !EMAIL.matcher(row.email()).matches()) {
+            return "Geçerli bir e-posta giriniz";
+        }
+        if (row.phone() == null || row.phone().length() < 10 || row.phone().length() > 15) {
+            return "Telefon numarası 10-15 karakter olmalı";
+        }
+        if (row.password() == null || row.password().length() < 8) {
+            return "Şifre en az 8 karakter olmalı";
+        }
+        try {
+            statusOf(row);
+            roleOf(row);
+        } catch (IllegalArgumentException e) {
+            return "Geçersiz durum veya rol";
+        }
+        return null;
+    }
+
+    private static Status statusOf(ImportRow row) {
+        return row.status() == null ? Status.ACTIVE : Status.valueOf(row.status().toUpperCase(Locale.ROOT));
+    }
+
+    private static Role roleOf(ImportRow row) {
+        return row.role() == null ? Role.USER : Role.valueOf(row.role().toUpperCase(Locale.ROOT));
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < record.size() ? record.get(index) : null;
+    }
+
+    private static String text(Map<String, Object> row, String name) {
+        Object value = row.get(name);
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * Tüm kullanıcıları belleğe almadan, JDBC cursor üzerinden okundukça consumer'a verir. Şifre özetleri dışa aktarılmaz.
+     */
+    @Transactional(readOnly = true)
+    public void exportUsers(Consumer<UserResponse> consumer) {
+        streamingJdbcTemplate.query("SELECT id, username, email, phone, status, role FROM users ORDER BY id",
+                (RowCallbackHandler) rs -> consumer.accept(new UserResponse(
+                        rs.getLong("id"),
+                        rs.getString("username"),
+                        rs.getString("email"),
+                        rs.getString("phone"),
+                        rs.getString("status") != null ? rs.getString("status") : Status.ACTIVE.name(),
+                        rs.getString("role"))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdownNow();
+        logger.debug("Bulk password hash pool stopped");
+    }
+
+    private record ImportRow(long line, String username, String email, String phone, String password,
+                             String status, String role) {
+
+        // Boş alanlar null kabul edilir; şifre olduğu gibi bırakılır
+        ImportRow trimmed() {
+            return new ImportRow(line, clean(username), clean(email), clean(phone),
+                    password == null || password.isEmpty() ? null : password, clean(status), clean(role));
+        }
+
+        private static String clean(String value) {
+            if (value == null) {
+                return null;
+            }
+            String trimmed = value.trim();
+            return trimmed.isEmpty() ? null : trimmed;
+        }
+    }
+
+    private record Existing(Set<String> usernames, Set<String> emails, Set<String> phones) {
+    }
+}
@@ -0,0 +1,165 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.User;
+import com.project.Trinity.Repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Kullanıcı adına göre yüklenen {@link User} kayıtları için boyut ve TTL sınırlı bellek içi önbellek.
+ * Dönen nesneler detached'tir ve yalnızca okunmalıdır; kullanıcıyı değiştiren işlemler {@link #evict(String)}
+ * veya {@link #evictById(Long)} çağırmalıdır.
+ */
+@Component
+public class UserDetailsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDetailsCache.class);
+
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final Map<String, CachedUser> entries = new ConcurrentHashMap<>();
+    // Her invalidation'da artar; DB okuması sürerken gelen bir invalidation eski verinin önbelleğe yazılmasını engeller.
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public UserDetailsCache(UserRepository userRepository,
+                            @Value("${user-cache.max-size:10000}") int maxSize,
+                            @Value("${user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public Optional<User> findByUsername(String username) {
+        User cached = get(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long observedGeneration = generation.get();
+        Optional<User> user = userRepository.findByUsername(username);
+        user.ifPresent(u -> put(u, observedGeneration));
+        return user;
+    }
+
+    public User get(String username) {
+        CachedUser entry = entries.get(username);
+        if (entry == null || entry.isExpired()) {
+            if (entry != null) {
+                entries.remove(username, entry);
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.user;
+    }
+
+    /** Çağıran, kullanıcıyı DB'den okumadan önce {@link #currentGeneration()} değerini almış olmalıdır. */
+    public void put(User user, long observedGeneration) {
+        if (user == null || user.getUsername() == null || generation.get() != observedGeneration) {
+            return;
+        }
+        entries.put(user.getUsername(), new CachedUser(user, System.currentTimeMillis() + ttlMillis));
+        if (entries.size() > maxSize) {
+            trim();
+        }
+    }
+
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    public void evict(String username) {
+        if (username == null) {
+            return;
+        }
+        invalidate(() -> {
+            if (entries.remove(username) != null) {
+                evictions.increment();
+            }
+        });
+    }
+
+    public void evictById(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        invalidate(() -> {
+            if (entries.values().removeIf(entry -> userId.equals(entry.user.getId()))) {
+                evictions.increment();
+            }
+        });
+    }
+
+    // Hem hemen hem de commit sonrasında silinir; commit'ten önce başka bir isteğin eski satırı yeniden önbelleğe almasını önler.
+    private void invalidate(Runnable removal) {
+        generation.incrementAndGet();
+        removal.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.incrementAndGet();
+                    removal.run();
+                }
+            });
+        }
+    }
+
+    private void trim() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() > maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) entries.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    @Scheduled(fixedDelay = 300000)
+    public void logStats() {
+        logger.debug("User cache stats: {}", getStats());
+    }
+
+    private static final class CachedUser {
+        private final User user;
+        private final long expiresAt;
+
+        private CachedUser(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
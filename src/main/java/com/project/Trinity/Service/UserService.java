@@ -1,75 +1,97 @@
 package com.project.Trinity.Service;
 
-import com.project.Trinity.Entity.PasswordResetToken;
+import com.project.Trinity.Entity.AuditAction;
 import com.project.Trinity.Entity.Role;
 import com.project.Trinity.Entity.User;
-import com.project.Trinity.Entity.AuditLog;
-import com.project.Trinity.Entity.Password;
 import com.project.Trinity.Entity.Status;
-import com.project.Trinity.Repository.PasswordResetTokenRepository;
-import com.project.Trinity.Repository.RefreshTokenRepository;
+import com.project.Trinity.Entity.VerificationCode;
+import com.project.Trinity.Entity.VerificationPurpose;
 import com.project.Trinity.Repository.UserRepository;
-import com.project.Trinity.Repository.AuditLogRepository;
-import com.project.Trinity.Repository.PasswordRepository;
+import com.project.Trinity.Repository.UserSummaryRepository;
+import com.project.Trinity.Repository.PasswordViewEventRepository;
+import com.project.Trinity.DTO.PasswordSummary;
 import com.project.Trinity.DTO.UserResponse;
 import com.project.Trinity.Service.PasswordService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.sql.Date;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
 public class UserService implements UserDetailsService {
 
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int VIEW_TREND_DAYS = 7;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final PasswordResetTokenRepository tokenRepository;
+    private final VerificationCodeService verificationCodeService;
     private final EmailService emailService;
     private final PasswordService passwordService;
-    private final AuditLogRepository auditLogRepository;
-    private final PasswordRepository passwordRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserDetailsCache userDetailsCache;
+    private final PasswordViewEventRepository passwordViewEventRepository;
+    private final DashboardStats dashboardStats;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
 
     @Autowired
-    private RefreshTokenRepository refreshTokenRepository;
+    private ProfilePictureService profilePictureService;
+
+    @Autowired
+    private UserSummaryRepository userSummaryRepository;
 
     
     public UserService(
             UserRepository userRepository,
-            PasswordResetTokenRepository tokenRepository,
+            VerificationCodeService verificationCodeService,
             PasswordEncoder passwordEncoder,
             EmailService emailService,
             PasswordService passwordService,
-            AuditLogRepository auditLogRepository,PasswordRepository passwordRepository) {
+            AuditLogWriter auditLogWriter,
+            TokenRevocationService tokenRevocationService, UserDetailsCache userDetailsCache,
+            PasswordViewEventRepository passwordViewEventRepository, DashboardStats dashboardStats) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
-        this.tokenRepository = tokenRepository;
+        this.verificationCodeService = verificationCodeService;
         this.passwordService = passwordService;
-        this.auditLogRepository = auditLogRepository;
-        this.passwordRepository = passwordRepository;
-        
+        this.auditLogWriter = auditLogWriter;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userDetailsCache = userDetailsCache;
+        this.passwordViewEventRepository = passwordViewEventRepository;
+        this.dashboardStats = dashboardStats;
     }
 
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        // Önbellek isabetinde transaction açılmaz; her istekte DB'ye gidilmez
+        User cached = userDetailsCache.get(username);
+        if (cached != null && !(cached.getStatus() == Status.INACTIVE && cached.getFrozenAt() != null)) {
+            return cached;
+        }
+
+        long cacheGeneration = userDetailsCache.currentGeneration();
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
 
@@ -79,16 +101,16 @@ public class UserService implements UserDetailsService {
             if (daysFrozen < 30) {
                 user.setStatus(Status.ACTIVE);
                 user.setFrozenAt(null); // Dondurma zamanını sıfırla
-                userRepository.save(user);
+                user = userRepository.save(user);
+                userDetailsCache.evict(username);
 
                 // Denetim kaydı ekle
-                AuditLog auditLog = new AuditLog();
-                auditLog.setAction("Hesap aktif hale getirildi: " + username);
-                auditLog.setTimestamp(LocalDateTime.now());
-                auditLogRepository.save(auditLog);
+                auditLogWriter.record(AuditAction.USER_REACTIVATED, user.getId(), "Hesap aktif hale getirildi: " + username);
+                return user;
             }
         }
 
+        userDetailsCache.put(user, cacheGeneration);
         return user;
     }
 
@@ -140,11 +162,9 @@ public class UserService implements UserDetailsService {
         newUser.setRole(Role.valueOf(role));
 
         User savedUser = userRepository.save(newUser);
+        dashboardStats.userCreated();
 
-        AuditLog auditLog = new AuditLog();
-        auditLog.setAction("Kullanıcı eklendi: " + username);
-        auditLog.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(auditLog);
+        auditLogWriter.record(AuditAction.USER_CREATED, savedUser.getId(), "Kullanıcı eklendi: " + username);
 
         // UserResponse'u status ve role ile birlikte döndür
         return new UserResponse(
@@ -160,8 +180,13 @@ public class UserService implements UserDetailsService {
     public UserResponse updateUser(Long id, String newUsername, String password, String email, String phone, String status, String role) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + id));
+        userDetailsCache.evict(user.getUsername());
+        String oldUsername = user.getUsername();
+        Role oldRole = user.getRole();
+        Status oldStatus = user.getStatus();
+        boolean passwordChanged = password != null && !password.trim().isEmpty();
         user.setUsername(newUsername);
-        if (password != null && !password.trim().isEmpty() && password.length() > 0) {
+        if (passwordChanged) {
             user.setPassword(passwordEncoder.encode(password));
         }
         user.setEmail(email);
@@ -173,18 +198,20 @@ public class UserService implements UserDetailsService {
             user.setRole(Role.valueOf(role));
         }
         User updatedUser = userRepository.save(user);
+        // Yalnızca token claim'lerini (sub/rol/durum) eskiten veya kimlik bilgisini değiştiren düzenlemeler oturumları kapatır
+        if (passwordChanged || !oldUsername.equals(updatedUser.getUsername())
+                || oldRole != updatedUser.getRole() || oldStatus != updatedUser.getStatus()) {
+            tokenRevocationService.revokeUser(updatedUser.getId());
+        }
+        userDetailsCache.evict(updatedUser.getUsername());
 
-        AuditLog auditLog = new AuditLog();
-        auditLog.setAction("Kullanıcı güncellendi: " + newUsername);
-        auditLog.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(auditLog);
+        auditLogWriter.record(AuditAction.USER_UPDATED, updatedUser.getId(), "Kullanıcı güncellendi: " + newUsername);
 
         return new UserResponse(updatedUser.getId(), updatedUser.getUsername(), updatedUser.getEmail(), updatedUser.getPhone());
     }
 
-    public Page<UserResponse> getAllUsers(Pageable pageable) {
-        return userRepository.findAll(pageable)
-                .map(user -> new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getPhone()));
+    public List<UserResponse> getUsersPage(Status status, Role role, String search, long afterId, int limit) {
+        return userSummaryRepository.findPage(status, role, search, afterId, limit);
     }
 
     public long countUsers() {
@@ -193,26 +220,23 @@ public class UserService implements UserDetailsService {
 
     @Transactional
     public void deleteUser(Long id) {
-        refreshTokenRepository.deleteByUserId(id);
+        refreshTokenService.deleteByUserId(id);
+        profilePictureService.delete(id);
         userRepository.deleteById(id);
+        dashboardStats.userDeleted();
+        tokenRevocationService.revokeUser(id);
+        userDetailsCache.evictById(id);
 
-        AuditLog auditLog = new AuditLog();
-        auditLog.setAction("Kullanıcı silindi: ID " + id);
-        auditLog.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(auditLog);
+        auditLogWriter.record(AuditAction.USER_DELETED, id, "Kullanıcı silindi: ID " + id);
     }
 
-    @Transactional
-    public void uploadProfilePicture(String username, byte[] imageData) {
-        User user = userRepository.findByUsername(username)
+    // Transaction dışında: resim işlenirken veritabanı bağlantısı tutulmaz
+    public void uploadProfilePicture(String username, MultipartFile file) throws IOException {
+        User user = userDetailsCache.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
-        user.setProfilePicture(imageData);
-        userRepository.save(user);
+        profilePictureService.save(user.getId(), file);
 
-        AuditLog auditLog = new AuditLog();
-        auditLog.setAction("Profil resmi güncellendi: " + username);
-        auditLog.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(auditLog);
+        auditLogWriter.record(AuditAction.PROFILE_PICTURE_UPDATED, user.getId(), "Profil resmi güncellendi: " + username);
     }
 
     @Transactional
@@ -222,11 +246,10 @@ public class UserService implements UserDetailsService {
         user.setStatus(Status.INACTIVE); // FROZEN yerine INACTIVE kullanıyoruz
         user.setFrozenAt(LocalDateTime.now());
         userRepository.save(user);
+        tokenRevocationService.revokeUser(user.getId());
+        userDetailsCache.evict(username);
 
-        AuditLog auditLog = new AuditLog();
-        auditLog.setAction("Hesap donduruldu: " + username);
-        auditLog.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(auditLog);
+        auditLogWriter.record(AuditAction.ACCOUNT_FROZEN, user.getId(), "Hesap donduruldu: " + username);
     }
 
     public void sendResetLink(String emailOrPhone) {
@@ -234,41 +257,33 @@ public class UserService implements UserDetailsService {
                 .orElseGet(() -> userRepository.findByPhone(emailOrPhone)
                         .orElseThrow(() -> new IllegalArgumentException("No account found with this email or phone")));
 
-        String resetCode = String.format("%06d", new Random().nextInt(999999));
-        LocalDateTime expiryDate = LocalDateTime.now().plusMinutes(15);
-
-        PasswordResetToken token = new PasswordResetToken(resetCode, user, expiryDate);
-        tokenRepository.save(token);
+        String resetCode = verificationCodeService.issue(user.getId(), VerificationPurpose.RESET_PASSWORD);
 
-        try {
-            emailService.sendResetCodeEmail(user.getEmail(), resetCode);
-        } catch (Exception e) {
-            throw new RuntimeException("E-posta gönderimi başarısız: " + e.getMessage());
-        }
+        emailService.sendResetCodeEmail(user.getEmail(), resetCode); // Outbox'a yazılır, gönderim arka planda
     }
 
     public void resetPassword(String token, String newPassword) {
-        PasswordResetToken resetToken = tokenRepository.findByToken(token)
+        VerificationCode resetCode = verificationCodeService.find(null, VerificationPurpose.RESET_PASSWORD, token)
                 .orElseThrow(() -> new IllegalArgumentException("Geçersiz sıfırlama kodu"));
 
-        if (resetToken.isExpired()) {
+        if (resetCode.isExpired()) {
             throw new IllegalArgumentException("Sıfırlama kodu süresi dolmuş");
         }
 
-        User user = resetToken.getUser();
+        User user = userRepository.findById(resetCode.getUserId())
+                .orElseThrow(() -> new IllegalArgumentException("Geçersiz sıfırlama kodu"));
         if (newPassword == null || newPassword.length() < 8) {
             throw new IllegalArgumentException("Yeni şifre en az 8 karakter olmalı");
         }
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        tokenRevocationService.revokeUser(user.getId());
+        userDetailsCache.evict(user.getUsername());
 
-        AuditLog auditLog = new AuditLog();
-        auditLog.setAction("Şifre sıfırlandı: " + user.getUsername());
-        auditLog.setTimestamp(LocalDateTime.now());
-        auditLogRepository.save(auditLog);
+        auditLogWriter.record(AuditAction.PASSWORD_RESET, user.getId(), "Şifre sıfırlandı: " + user.getUsername());
 
-        tokenRepository.delete(resetToken);
+        verificationCodeService.consume(resetCode);
     }
 
     private UserResponse toUserResponse(User user) {
@@ -279,62 +294,54 @@ public class UserService implements UserDetailsService {
         return SecurityContextHolder.getContext().getAuthentication().getName();
     }
 
+    // Panel değerleri DashboardStats'ın bellekteki sayaçlarından okunur; count() tam tablo taraması yapar
     public long getTotalPasswordCount() {
-        return passwordService.countPasswords();
+        return dashboardStats.getPasswordCount();
     }
 
     public long getTotalUserCount() {
-        return userRepository.count();
+        return dashboardStats.getUserCount();
     }
 
     public List<String> getRecentActions() {
-        return auditLogRepository.findTop10ByOrderByTimestampDesc()
-                .stream()
-                .map(AuditLog::getAction)
-                .collect(Collectors.toList());
+        return dashboardStats.getRecentActions();
     }
     
+    // Son 7 günün (bugün dahil) görüntülenme sayıları; gruplama veritabanında, yalnızca pencere içindeki olaylar okunur
     public Map<String, Long> getPasswordViewTrend(String username) {
-        User user = userRepository.findByUsername(username)
+        User user = userDetailsCache.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
-        LocalDateTime startDate = LocalDateTime.now().minusDays(7);
-       
-		List<Password> passwords = passwordRepository.findByUser(user);
+        LocalDate firstDay = LocalDate.now().minusDays(VIEW_TREND_DAYS - 1);
 
         Map<String, Long> trend = new TreeMap<>();
-        LocalDateTime current = startDate;
-        while (current.isBefore(LocalDateTime.now())) {
-            String dateKey = current.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-            trend.put(dateKey, 0L);
-            current = current.plusDays(1);
+        for (int i = 0; i < VIEW_TREND_DAYS; i++) {
+            trend.put(firstDay.plusDays(i).format(DAY_FORMAT), 0L);
         }
 
-        for (Password password : passwords) {
-            if (password.getLastUsed() != null && password.getLastUsed().isAfter(startDate)) {
-                String date = password.getLastUsed().format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-                trend.put(date, trend.getOrDefault(date, 0L) + 1);
-            }
+        for (Object[] row : passwordViewEventRepository.sumViewsPerDay(user.getId(), firstDay.atStartOfDay())) {
+            String day = ((Date) row[0]).toLocalDate().format(DAY_FORMAT);
+            trend.put(day, ((Number) row[1]).longValue());
         }
 
         return trend;
     }
     
     public List<String> getMostViewedPasswords(String username) {
-        User user = userRepository.findByUsername(username)
+        User user = userDetailsCache.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
         return passwordService.getMostViewedPasswordsByUser(user, 3)
                 .stream()
-                .map(Password::getTitle)
+                .map(PasswordSummary::getTitle)
                 .collect(Collectors.toList());
     }
     
 
     public List<String> getFeaturedPasswords(String username) {
-        User user = userRepository.findByUsername(username)
+        User user = userDetailsCache.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Kullanıcı bulunamadı: " + username));
         return passwordService.getFeaturedPasswordsByUser(user)
                 .stream()
-                .map(Password::getTitle)
+                .map(PasswordSummary::getTitle)
                 .collect(Collectors.toList());
     }
 }
\ No newline at end of file
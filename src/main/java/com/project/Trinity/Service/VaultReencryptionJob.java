@@ -0,0 +1,131 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.JobCheckpoint;
+import com.project.Trinity.Repository.JobCheckpointRepository;
+import com.project.Trinity.Util.EncryptionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * passwords.password değerlerini eski formattan veya eski anahtardan mevcut AES-GCM anahtarına taşır.
+ * id üzerinden keyset sayfalama yapar, her parti kendi kısa auto-commit ifadeleriyle yazılır ve ilerleme
+ * job_checkpoints tablosuna kaydedilir; uzun transaction veya tablo kilidi tutulmaz.
+ */
+@Component
+public class VaultReencryptionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(VaultReencryptionJob.class);
+    private static final String JOB_NAME = "vault-reencryption";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EncryptionUtil encryptionUtil;
+    private final JobCheckpointRepository checkpointRepository;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${encryption.reencrypt.enabled:false}")
+    private boolean enabled;
+
+    @Value("${encryption.reencrypt.batch-size:500}")
+    private int batchSize;
+
+    @Value("${encryption.reencrypt.throttle-ms:200}")
+    private long throttleMillis; // Partiler arası bekleme; DB yükünü sınırlar
+
+    @Value("${encryption.reencrypt.max-run-ms:60000}")
+    private long maxRunMillis; // Tek çalıştırmanın süre bütçesi
+
+    public VaultReencryptionJob(JdbcTemplate jdbcTemplate, EncryptionUtil encryptionUtil,
+                                JobCheckpointRepository checkpointRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.encryptionUtil = encryptionUtil;
+        this.checkpointRepository = checkpointRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${encryption.reencrypt.interval-ms:300000}")
+    public void run() {
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            reencryptBatches();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Vault re-encryption stopped: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void reencryptBatches() throws Exception {
+        String targetKeyId = encryptionUtil.getKeyId();
+        JobCheckpoint checkpoint = checkpointRepository.findById(JOB_NAME).orElseGet(() -> new JobCheckpoint(JOB_NAME));
+        if (!targetKeyId.equals(checkpoint.getTarget())) {
+            // Anahtar değişti: taramayı baştan başlat
+            checkpoint.setTarget(targetKeyId);
+            checkpoint.setLastId(0);
+            checkpoint.setCompleted(false);
+        }
+        if (checkpoint.isCompleted()) {
+            return;
+        }
+
+        long deadline = System.currentTimeMillis() + maxRunMillis;
+        int converted = 0;
+        int skipped = 0;
+        while (System.currentTimeMillis() < deadline) {
+            List<StoredSecret> rows = jdbcTemplate.query(
+                    "SELECT id, password FROM passwords WHERE id > ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new StoredSecret(rs.getLong("id"), rs.getString("password")),
+                    checkpoint.getLastId(), batchSize);
+            if (rows.isEmpty()) {
+                checkpoint.setCompleted(true);
+                logger.info("Vault re-encryption completed for key id {}", targetKeyId);
+                break;
+            }
+
+            List<Object[]> updates = new ArrayList<>();
+            for (StoredSecret row : rows) {
+                // Çözülemeyen tek bir satır (bozuk Base64, bilinmeyen anahtar) taramayı kalıcı olarak durdurmaz; atlanır
+                try {
+                    if (encryptionUtil.needsReencryption(row.value())) {
+                        String plain = encryptionUtil.decrypt(row.value());
+                        updates.add(new Object[]{encryptionUtil.encrypt(plain), row.id(), row.value()});
+                    }
+                } catch (Exception e) {
+                    skipped++;
+                    logger.warn("Vault re-encryption skipped password id {}: {}", row.id(), e.getMessage());
+                }
+            }
+            if (!updates.isEmpty()) {
+                // Eski değer koşulu: bu arada kullanıcı tarafından güncellenen satırın üzerine yazılmaz
+                jdbcTemplate.batchUpdate("UPDATE passwords SET password = ? WHERE id = ? AND password = ?", updates);
+                converted += updates.size();
+            }
+
+            checkpoint.setLastId(rows.get(rows.size() - 1).id());
+            saveCheckpoint(checkpoint);
+            Thread.sleep(throttleMillis);
+        }
+        saveCheckpoint(checkpoint);
+        logger.info("Vault re-encryption run finished: {} entries converted, {} skipped, checkpoint id {}",
+                converted, skipped, checkpoint.getLastId());
+    }
+
+    private void saveCheckpoint(JobCheckpoint checkpoint) {
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+    private record StoredSecret(long id, String value) {
+    }
+}
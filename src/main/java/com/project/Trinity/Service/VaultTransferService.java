@@ -0,0 +1,407 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Config.JdbcConfig;
+import com.project.Trinity.DTO.BulkImportResult;
+import com.project.Trinity.DTO.VaultEntry;
+import com.project.Trinity.Util.CsvReader;
+import com.project.Trinity.Util.EncryptionUtil;
+import com.project.Trinity.Util.PassphraseCipher;
+import com.project.Trinity.Util.WorkerPools;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
+
+/**
+ * Kasa içe/dışa aktarma. İçe aktarma CSV akışını parti parti okur; başlık satırı Trinity'nin kendi dışa aktarımının
+ * yanında yaygın şifre yöneticilerinin (Bitwarden, LastPass, Chrome, 1Password, KeePass) kolon adlarını tanır.
+ * Her partide kategoriler tek sorguyla çözülür, şifreler sınırlı bir havuzda paralel şifrelenir ve satırlar JDBC batch
+ * ile eklenir. Hatalı satırlar atlanır ve satır numarasıyla raporlanır. Dışa aktarma kasayı belleğe almadan
+ * JDBC cursor üzerinden okur.
+ */
+@Service
+public class VaultTransferService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VaultTransferService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO passwords (user_id, created_by, category_id, title, username, password, description, status, is_featured, view_count) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 'ACTIVE', ?, 0)";
+    private static final String CATEGORIES_SQL =
+            "SELECT id, name FROM categories WHERE status = 'ACTIVE' AND lower(name) = ANY (?)";
+    private static final int MAX_TITLE_LENGTH = 200;
+    private static final int MAX_USERNAME_LENGTH = 100;
+    // Zarf UTF-8 bayt sayısıyla büyür: "v1:" + Base64(2 + kid + 12 nonce + metin + 16 tag); 320 bayt, 31 karaktere
+    // kadar kid ile passwords.password (512) kolonuna sığar
+    private static final int MAX_PASSWORD_BYTES = 320;
+    private static final int MAX_STORED_PASSWORD_LENGTH = 512; // passwords.password kolonu
+    private static final int MAX_DESCRIPTION_LENGTH = 500;
+    private static final String PASSWORD_TOO_LONG = "Şifre en fazla " + MAX_PASSWORD_BYTES + " bayt (UTF-8) olabilir";
+
+    private enum Column { TITLE, USERNAME, PASSWORD, URL, CATEGORY, DESCRIPTION, FEATURED }
+
+    // Başlıktaki ilk eşleşen ad kullanılır; adlar küçük harfe çevrilip karşılaştırılır
+    private static final Map<String, Column> HEADER_ALIASES = new HashMap<>();
+
+    static {
+        alias(Column.TITLE, "title", "name", "account");
+        alias(Column.USERNAME, "username", "login_username", "login name", "login", "user name");
+        alias(Column.PASSWORD, "password", "login_password");
+        alias(Column.URL, "url", "login_uri", "web site", "website");
+        alias(Column.CATEGORY, "category", "folder", "grouping", "group");
+        alias(Column.DESCRIPTION, "description", "notes", "note", "extra", "comments");
+        alias(Column.FEATURED, "featured", "favorite", "fav");
+    }
+
+    private static void alias(Column column, String... names) {
+        for (String name : names) {
+            HEADER_ALIASES.put(name, column);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate; // Dışa aktarma cursor ile okunur
+    private final TransactionTemplate transactionTemplate;
+    private final EncryptionUtil encryptionUtil;
+    private final DashboardStats dashboardStats;
+    private final MostViewedCache mostViewedCache;
+
+    @Value("${vault-transfer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${vault-transfer.encrypt-threads:0}")
+    private int encryptThreads; // 0: işlemci sayısı
+
+    @Value("${vault-transfer.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    private ThreadPoolExecutor encryptPool;
+    private int slices;
+
+    public VaultTransferService(JdbcTemplate jdbcTemplate,
+                                @Qualifier(JdbcConfig.STREAMING_JDBC_TEMPLATE) JdbcTemplate streamingJdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                EncryptionUtil encryptionUtil, DashboardStats dashboardStats, MostViewedCache mostViewedCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = streamingJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.encryptionUtil = encryptionUtil;
+        this.dashboardStats = dashboardStats;
+        this.mostViewedCache = mostViewedCache;
+    }
+
+    @PostConstruct
+    void start() {
+        slices = WorkerPools.threadCount(encryptThreads);
+        // Parti, thread sayısı kadar dilime bölünür
+        encryptPool = WorkerPools.callerRuns("vault-import-encrypt", slices, slices * 4);
+    }
+
+    /**
+     * CSV'yi kullanıcının kasasına ekler. Kategorisi boş veya bulunamayan satırlar defaultCategoryId'ye düşer; verilmezse
+     * hata olarak raporlanır. "p1:" ile başlayan şifreler (Trinity'nin parolalı dışa aktarımı) importCipher ile çözülür.
+     * Her parti kendi transaction'ında eklenir; bozuk bir kayıtta içe aktarma durur, önceki partiler kalır.
+     */
+    public BulkImportResult importCsv(Long userId, Reader reader, Long defaultCategoryId, PassphraseCipher importCipher)
+            throws IOException {
+        if (defaultCategoryId != null) {
+            Integer active = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM categories WHERE id = ? AND status = 'ACTIVE'", Integer.class, defaultCategoryId);
+            if (active == null || active == 0) {
+                throw new IllegalArgumentException("Aktif kategori bulunamadı: " + defaultCategoryId);
+            }
+        }
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("Dosya boş");
+        }
+        Map<Column, Integer> columns = mapHeader(header);
+        if (!columns.containsKey(Column.PASSWORD) || !(columns.containsKey(Column.TITLE) || columns.containsKey(Column.URL))) {
+            throw new IllegalArgumentException("CSV başlığında şifre ve başlık (veya URL) kolonları bulunamadı");
+        }
+
+        BulkImportResult result = new BulkImportResult(maxReportedErrors);
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        while (true) {
+            List<String> record;
+            try {
+                record = csv.readRecord();
+            } catch (IllegalArgumentException e) {
+                result.addError(csv.getRecordLine(), "Geçersiz CSV, içe aktarma bu satırda durduruldu: " + e.getMessage());
+                break;
+            }
+            if (record == null) {
+                break;
+            }
+            ImportRow row = toRow(csv.getRecordLine(), record, columns, result);
+            if (row != null) {
+                batch.add(row);
+            }
+            if (batch.size() == batchSize) {
+                importBatch(userId, batch, defaultCategoryId, importCipher, result);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(userId, batch, defaultCategoryId, importCipher, result);
+        }
+        logger.info("Vault import for user {}: {} imported, {} failed", userId, result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private static Map<Column, Integer> mapHeader(List<String> header) {
+        Map<Column, Integer> columns = new EnumMap<>(Column.class);
+        for (int i = 0; i < header.size(); i++) {
+            Column column = HEADER_ALIASES.get(header.get(i).trim().toLowerCase(Locale.ROOT));
+            if (column != null) {
+                columns.putIfAbsent(column, i);
+            }
+        }
+        return columns;
+    }
+
+    // Alan kontrolleri; şifre burada çözülmez veya şifrelenmez, o iş paralel aşamada yapılır
+    private static ImportRow toRow(long line, List<String> record, Map<Column, Integer> columns, BulkImportResult result) {
+        String url = field(record, columns, Column.URL);
+        String title = field(record, columns, Column.TITLE);
+        if (title == null) {
+            title = url;
+        }
+        String username = field(record, columns, Column.USERNAME);
+        String password = field(record, columns, Column.PASSWORD);
+        String description = field(record, columns, Column.DESCRIPTION);
+        if (url != null && !url.equals(title)) {
+            description = description == null ? url : url + "\n" + description; // URL için ayrı kolon yok
+        }
+        String error = null;
+        if (title == null || title.length() > MAX_TITLE_LENGTH) {
+            error = "Başlık 1-" + MAX_TITLE_LENGTH + " karakter olmalı";
+        } else if (username != null && username.length() > MAX_USERNAME_LENGTH) {
+            error = "Kullanıcı girişi en fazla " + MAX_USERNAME_LENGTH + " karakter olabilir";
+        } else if (password == null) {
+            error = "Şifre boş";
+        } else if (!PassphraseCipher.isEncrypted(password) && tooLong(password)) {
+            error = PASSWORD_TOO_LONG;
+        } else if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+            error = "Açıklama " + MAX_DESCRIPTION_LENGTH + " karakterden uzun olamaz";
+        }
+        if (error != null) {
+            result.addError(line, error);
+            return null;
+        }
+        String featured = field(record, columns, Column.FEATURED);
+        boolean isFeatured = featured != null && Set.of("1", "true", "yes", "x").contains(featured.toLowerCase(Locale.ROOT));
+        return new ImportRow(line, title, username != null ? username : "", password,
+                field(record, columns, Column.CATEGORY), description, isFeatured);
+    }
+
+    private void importBatch(Long userId, List<ImportRow> batch, Long defaultCategoryId, PassphraseCipher importCipher,
+                             BulkImportResult result) {
+        Map<String, Long> categories = resolveCategories(batch);
+        List<ImportRow> rows = new ArrayList<>(batch.size());
+        List<Long> categoryIds = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            Long categoryId = row.category() != null ? categories.get(row.category().toLowerCase(Locale.ROOT)) : null;
+            if (categoryId == null) {
+                categoryId = defaultCategoryId;
+            }
+            if (categoryId == null) {
+                result.addError(row.line(), row.category() != null
+                        ? "Aktif kategori bulunamadı: " + row.category()
+                        : "Kategori belirtilmemiş ve varsayılan kategori verilmemiş");
+                continue;
+            }
+            rows.add(row);
+            categoryIds.add(categoryId);
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Encrypted[] encrypted = encrypt(rows, importCipher);
+        List<Object[]> args = new ArrayList<>(rows.size());
+        Map<Long, Long> createdByCategory = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            if (encrypted[i].error() != null) {
+                result.addError(row.line(), encrypted[i].error()); // Kolona sığmayan değer INSERT'e ulaşıp partiyi bozmaz
+                continue;
+            }
+            args.add(new Object[]{userId, userId, categoryIds.get(i), row.title(), row.username(), encrypted[i].value(),
+                    row.description(), row.featured()});
+            createdByCategory.merge(categoryIds.get(i), 1L, Long::sum);
+        }
+        if (args.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, args);
+            dashboardStats.passwordsCreated(createdByCategory);
+            mostViewedCache.evict(userId);
+        });
+        result.addImported(args.size());
+    }
+
+    // Partideki kategori adları tek sorguda, büyük/küçük harf duyarsız çözülür
+    private Map<String, Long> resolveCategories(List<ImportRow> batch) {
+        Set<String> names = new HashSet<>();
+        for (ImportRow row : batch) {
+            if (row.category() != null) {
+                names.add(row.category().toLowerCase(Locale.ROOT));
+            }
+        }
+        Map<String, Long> categories = new HashMap<>();
+        if (names.isEmpty()) {
+            return categories;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(CATEGORIES_SQL);
+            statement.setArray(1, connection.createArrayOf("varchar", names.toArray()));
+            return statement;
+        }, (RowCallbackHandler) rs -> categories.putIfAbsent(rs.getString("name").toLowerCase(Locale.ROOT), rs.getLong("id")));
+        return categories;
+    }
+
+    /** Dilimler havuzda paralel işlenir; başarısız satırın sonucu hata mesajını taşır. */
+    private Encrypted[] encrypt(List<ImportRow> rows, PassphraseCipher importCipher) {
+        Encrypted[] encrypted = new Encrypted[rows.size()];
+        int sliceSize = Math.max(1, (rows.size() + slices - 1) / slices);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int start = 0; start < rows.size(); start += sliceSize) {
+            int from = start;
+            int to = Math.min(rows.size(), start + sliceSize);
+            futures.add(encryptPool.submit(() -> {
+                for (int i = from; i < to; i++) {
+                    encrypted[i] = encryptOne(rows.get(i).password(), importCipher);
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Kasa içe aktarma kesildi", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Şifreler şifrelenemedi", e.getCause());
+        }
+        return encrypted;
+    }
+
+    private Encrypted encryptOne(String password, PassphraseCipher importCipher) {
+        String plaintext = password;
+        if (PassphraseCipher.isEncrypted(password)) {
+            if (importCipher == null) {
+                return Encrypted.failed("Şifre parola ile şifrelenmiş; içe aktarma parolası gerekli");
+            }
+            try {
+                plaintext = importCipher.decrypt(password);
+            } catch (Exception e) {
+                return Encrypted.failed("Şifre çözülemedi"); // Yanlış parola veya bozuk değer
+            }
+            if (tooLong(plaintext)) {
+                return Encrypted.failed(PASSWORD_TOO_LONG);
+            }
+        }
+        String value;
+        try {
+            value = encryptionUtil.encrypt(plaintext);
+        } catch (Exception e) {
+            return Encrypted.failed("Şifre şifrelenemedi");
+        }
+        // Bayt sınırı varsayılan kid uzunluğuna göre seçildi; uzun bir kid'de son kontrol zarfın kendisidir
+        return value.length() > MAX_STORED_PASSWORD_LENGTH ? Encrypted.failed(PASSWORD_TOO_LONG) : new Encrypted(value, null);
+    }
+
+    private static boolean tooLong(String password) {
+        return password.getBytes(StandardCharsets.UTF_8).length > MAX_PASSWORD_BYTES;
+    }
+
+    /**
+     * Kullanıcının aktif şifrelerini tamamını belleğe almadan, JDBC cursor üzerinden okundukça consumer'a verir.
+     * exportCipher verilirse şifreler çözülüp bu parolayla yeniden şifrelenir, verilmezse açık metin olarak döner.
+     */
+    @Transactional(readOnly = true)
+    public void exportVault(Long userId, PassphraseCipher exportCipher, Consumer<VaultEntry> consumer) {
+        streamingJdbcTemplate.query(
+                "SELECT p.id, c.name AS category_name, p.title, p.username, p.password, p.description, p.is_featured " +
+                "FROM passwords p JOIN categories c ON c.id = p.category_id " +
+                "WHERE p.created_by = ? AND p.status = 'ACTIVE' ORDER BY p.id",
+                (RowCallbackHandler) rs -> {
+                    String password;
+                    try {
+                        password = encryptionUtil.decrypt(rs.getString("password"));
+                        if (exportCipher != null) {
+                            password = exportCipher.encrypt(password);
+                        }
+                    } catch (Exception e) {
+                        // Eksik satırlı bir yedek sessizce üretilmez; akış yarıda kesilir
+                        throw new IllegalStateException("Şifre dışa aktarılamadı: id " + rs.getLong("id"), e);
+                    }
+                    consumer.accept(new VaultEntry(
+                            rs.getString("title"),
+                            rs.getString("username"),
+                            password,
+                            rs.getString("category_name"),
+                            rs.getString("description"),
+                            rs.getBoolean("is_featured")));
+                },
+                userId);
+    }
+
+    private static String field(List<String> record, Map<Column, Integer> columns, Column column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index);
+        if (column == Column.PASSWORD) {
+            return value.isEmpty() ? null : value; // Şifre olduğu gibi bırakılır
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        encryptPool.shutdownNow();
+    }
+
+    private record Encrypted(String value, String error) {
+        static Encrypted failed(String error) {
+            return new Encrypted(null, error);
+        }
+    }
+
+    private record ImportRow(long line, String title, String username, String password, String category,
+                             String description, boolean featured) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.VerificationCode;
+import com.project.Trinity.Entity.VerificationPurpose;
+import com.project.Trinity.Repository.VerificationCodeRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Kullanıcı ve amaç bazında 6 haneli doğrulama kodları üretir ve doğrular. Kodlar HMAC-SHA256 özeti olarak,
+ * benzersiz indeksli code_hash kolonunda saklanır; doğrulama tek indeks aramasıdır. Oturum içi amaçlarda özet
+ * kullanıcı kimliğini içerir, böylece farklı kullanıcıların aynı kodu birbirine karışmaz. RESET_PASSWORD oturumsuz
+ * kullanıldığından kod, saklanan tüm sıfırlama kodları arasında benzersiz olacak şekilde üretilir.
+ * Kullanıcı başına amaç başına tek kod tutulur; süresi dolanları ExpirySweeper siler.
+ */
+@Service
+public class VerificationCodeService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MAX_GENERATION_ATTEMPTS = 10;
+
+    private final VerificationCodeRepository verificationCodeRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final ThreadLocal<Mac> mac = ThreadLocal.withInitial(this::newMac);
+
+    @Value("${verification.hmac-key:${jwt.secret}}")
+    private String hmacKey;
+
+    @Value("${verification.code-ttl-minutes:15}")
+    private long codeTtlMinutes;
+
+    private SecretKeySpec keySpec;
+
+    public VerificationCodeService(VerificationCodeRepository verificationCodeRepository) {
+        this.verificationCodeRepository = verificationCodeRepository;
+    }
+
+    @PostConstruct
+    void init() {
+        keySpec = new SecretKeySpec(hmacKey.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    /** Kullanıcının bu amaçtaki önceki kodunu geçersiz kılar ve yeni bir kod döndürür. */
+    @Transactional
+    public String issue(Long userId, VerificationPurpose purpose) {
+        verificationCodeRepository.deleteByUserIdAndPurpose(userId, purpose);
+        for (int attempt = 0; attempt < MAX_GENERATION_ATTEMPTS; attempt++) {
+            String code = String.format("%06d", secureRandom.nextInt(1_000_000));
+            String codeHash = hash(purpose, userId, code);
+            if (!verificationCodeRepository.existsByCodeHash(codeHash)) {
+                verificationCodeRepository.save(new VerificationCode(userId, purpose, codeHash,
+                        LocalDateTime.now().plusMinutes(codeTtlMinutes)));
+                return code;
+            }
+        }
+        throw new IllegalStateException("Benzersiz doğrulama kodu üretilemedi");
+    }
+
+    /** RESET_PASSWORD için userId null verilir; diğer amaçlarda kod yalnızca sahibi için eşleşir. */
+    @Transactional(readOnly = true)
+    public Optional<VerificationCode> find(Long userId, VerificationPurpose purpose, String code) {
+        if (code == null || code.isBlank()) {
+            return Optional.empty();
+        }
+        return verificationCodeRepository.findByCodeHash(hash(purpose, userId, code.trim()))
+                .filter(found -> found.getPurpose() == purpose)
+                .filter(found -> userId == null || userId.equals(found.getUserId()));
+    }
+
+    @Transactional
+    public void consume(VerificationCode verificationCode) {
+        verificationCodeRepository.delete(verificationCode);
+    }
+
+    private String hash(VerificationPurpose purpose, Long userId, String code) {
+        String scope = purpose == VerificationPurpose.RESET_PASSWORD ? "" : String.valueOf(userId);
+        byte[] digest = mac.get().doFinal((purpose.name() + ":" + scope + ":" + code).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(HMAC_ALGORITHM);
+            instance.init(keySpec);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC oluşturulamadı", e);
+        }
+    }
+}
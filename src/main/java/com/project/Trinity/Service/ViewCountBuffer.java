@@ -0,0 +1,170 @@
+package com.project.Trinity.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Şifre görüntülenme sayaçlarını bellekte biriktirir ve aralıklarla toplu
+ * {@code UPDATE ... SET view_count = view_count + ?} ifadeleriyle veritabanına yazar.
+ * Görüntüleme isteği satır kilidi almaz; eşzamanlı artışlar kaybolmaz. Aynı transaction'da her şifre için
+ * password_view_events tablosuna toplanmış bir olay satırı eklenir; trend sorgusu bu tablodan okunur.
+ * Dayanıklılık sınırı: en fazla flush-interval-ms kadar veya max-pending girdilik artış kaybolabilir.
+ * max-pending aşıldığında yazma, görüntüleme isteğini bekletmemek için arka plandaki flush thread'ine devredilir.
+ */
+@Component
+public class ViewCountBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewCountBuffer.class);
+    private static final String FLUSH_SQL =
+            "UPDATE passwords SET view_count = view_count + ?, last_used = GREATEST(last_used, ?) WHERE id = ?";
+    private static final String EVENT_SQL =
+            "INSERT INTO password_view_events (password_id, user_id, viewed_at, views) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MostViewedCache mostViewedCache;
+    // CHM bin kilitleri şeritleme sağlar: artışlar merge ile yapılır, flush remove ile girdiyi atomik olarak devralır
+    private final Map<Long, PendingViews> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean earlyFlushQueued = new AtomicBoolean(false);
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "view-count-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${views.buffer.max-pending:10000}")
+    private int maxPending; // Bu kadar farklı girdi birikirse zamanlayıcı beklenmeden yazılır
+
+    @Value("${views.buffer.batch-size:500}")
+    private int batchSize;
+
+    public ViewCountBuffer(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, MostViewedCache mostViewedCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.mostViewedCache = mostViewedCache;
+    }
+
+    public void record(Long passwordId, Long userId) {
+        pending.merge(passwordId, new PendingViews(userId, 1, System.currentTimeMillis()), PendingViews::plus);
+        if (pending.size() >= maxPending && earlyFlushQueued.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(() -> {
+                    earlyFlushQueued.set(false);
+                    flush();
+                });
+            } catch (RejectedExecutionException e) {
+                earlyFlushQueued.set(false); // Kapanıyor; kalan artışlar flushOnShutdown ile yazılır
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${views.buffer.flush-interval-ms:5000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return; // Başka bir thread zaten yazıyor
+        }
+        try {
+            drainAndWrite();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushExecutor.shutdown();
+        flushLock.lock();
+        try {
+            drainAndWrite();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void drainAndWrite() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<DrainedViews> drained = new ArrayList<>(pending.size());
+        for (Long passwordId : pending.keySet()) {
+            PendingViews views = pending.remove(passwordId);
+            if (views != null) {
+                drained.add(new DrainedViews(passwordId, views.userId(), views.count(), views.lastViewedAt()));
+            }
+        }
+        // Sabit sıra: aynı satırları güncelleyen düğümler arasında deadlock oluşmaz
+        drained.sort(Comparator.comparing(DrainedViews::passwordId));
+
+        for (int from = 0; from < drained.size(); from += batchSize) {
+            List<DrainedViews> chunk = drained.subList(from, Math.min(from + batchSize, drained.size()));
+            try {
+                write(chunk);
+                // Yazılan artışlar top-K önbelleğine yansıtılır; önbellek veritabanından ileri gitmez
+                chunk.forEach(views -> mostViewedCache.onViewsFlushed(views.userId(), views.passwordId(), views.count()));
+            } catch (RuntimeException e) {
+                logger.error("View count flush failed, {} entries re-queued: {}", chunk.size(), e.getMessage());
+                chunk.forEach(this::requeue);
+            }
+        }
+    }
+
+    private void write(List<DrainedViews> chunk) {
+        List<Object[]> args = new ArrayList<>(chunk.size());
+        List<Object[]> events = new ArrayList<>(chunk.size());
+        for (DrainedViews views : chunk) {
+            Timestamp viewedAt = toTimestamp(views.lastViewedAt());
+            args.add(new Object[]{views.count(), viewedAt, views.passwordId()});
+            if (views.userId() != null) {
+                events.add(new Object[]{views.passwordId(), views.userId(), viewedAt, views.count()});
+            }
+        }
+        // Sayaç ve olaylar birlikte yazılır; hata durumunda yeniden kuyruğa alınan artışlar iki kez sayılmaz
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, args);
+            if (!events.isEmpty()) {
+                jdbcTemplate.batchUpdate(EVENT_SQL, events);
+            }
+        });
+    }
+
+    private void requeue(DrainedViews views) {
+        pending.merge(views.passwordId(), new PendingViews(views.userId(), views.count(), views.lastViewedAt()),
+                PendingViews::plus);
+    }
+
+    private static Timestamp toTimestamp(long epochMillis) {
+        return Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()));
+    }
+
+    // userId şifrenin sahibidir; top-K önbelleğini güncellemek için. Birleştirme bin kilidi altında yapılır.
+    private record PendingViews(Long userId, long count, long lastViewedAt) {
+        private PendingViews plus(PendingViews other) {
+            return new PendingViews(userId, count + other.count, Math.max(lastViewedAt, other.lastViewedAt));
+        }
+    }
+
+    private record DrainedViews(Long passwordId, Long userId, long count, long lastViewedAt) {
+    }
+}
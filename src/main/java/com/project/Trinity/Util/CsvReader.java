@@ -0,0 +1,140 @@
+package com.project.Trinity.Util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV okuyucu; kayıtları akıştan tek tek okur, dosyanın tamamını belleğe almaz. Tırnaklı alanlarda ayırıcı,
+ * satır sonu ve çift tırnak ("") desteklenir. Tek bir alanın uzunluğu sınırlıdır.
+ */
+public class CsvReader {
+
+    private static final int MAX_FIELD_LENGTH = 64 * 1024;
+
+    private final Reader reader;
+    private final char separator;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private long lineNumber = 1;
+    private long recordLine;
+
+    public CsvReader(Reader reader) {
+        this(reader, ',');
+    }
+
+    public CsvReader(Reader reader, char separator) {
+        this.reader = reader;
+        this.separator = separator;
+    }
+
+    /** Bir sonraki kaydı döner; akış bittiyse null. Boş satırlar atlanır. */
+    public List<String> readRecord() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            if (c == '\uFEFF' && recordLine == 0 && lineNumber == 1) {
+                continue; // Excel ve bazı şifre yöneticilerinin UTF-8 dışa aktarımlarındaki BOM
+            }
+            if (c == '\r' || c == '\n') {
+                consumeLineEnd(c);
+                continue;
+            }
+            recordLine = lineNumber;
+            return readFields(c);
+        }
+    }
+
+    /** Son okunan kaydın başladığı satır (1'den başlar); hata raporlamak için. */
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    private List<String> readFields(int first) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int c = first;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Satır " + recordLine + ": kapanmamış tırnak");
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        append(field, '"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    append(field, (char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == separator) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                fields.add(field.toString());
+                if (c != -1) {
+                    consumeLineEnd(c);
+                }
+                return fields;
+            } else {
+                append(field, (char) c);
+            }
+            c = read();
+        }
+    }
+
+    private void append(StringBuilder field, char c) {
+        if (field.length() >= MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException("Satır " + recordLine + ": alan çok uzun");
+        }
+        field.append(c);
+    }
+
+    private void consumeLineEnd(int c) throws IOException {
+        lineNumber++;
+        if (c == '\r') {
+            int next = peek();
+            if (next == '\n') {
+                position++;
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int count = reader.read(buffer, 0, buffer.length);
+        if (count <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = count;
+        return true;
+    }
+}
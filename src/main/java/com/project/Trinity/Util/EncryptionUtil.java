@@ -1,39 +1,239 @@
 package com.project.Trinity.Util;
 
 import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
+/**
+ * Kasa girdilerini AES-GCM ile şifreler. Saklanan değer sürümlü bir zarftır:
+ * {@code "v1:" + Base64(0x01 | kidUzunluğu | kid | 12 bayt nonce | şifreli metin + 16 bayt tag)}.
+ * Öneki olmayan değerler eski AES/ECB formatıdır ve yalnızca çözülür; yeniden şifreleme işi bunları dönüştürür.
+ */
 @Component
 public class EncryptionUtil {
     private static final String ALGORITHM = "AES";
-    private static final String TRANSFORMATION = "AES";
+    private static final String LEGACY_TRANSFORMATION = "AES"; // Eski kayıtlar: AES/ECB/PKCS5Padding
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding"; // JDK intrinsic'leri ile AES-NI hızında çalışır
+    private static final String ENVELOPE_PREFIX = "v1:";
+    private static final byte ENVELOPE_VERSION = 1;
+    private static final int NONCE_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
 
     @Value("${encryption.secret-key}")
     private String SECRET_KEY; // application.properties'den alınacak
 
+    @Value("${encryption.key-id:1}")
+    private String keyId; // Yeni şifrelemelerde kullanılan anahtarın kimliği
+
+    @Value("${encryption.previous-keys:}")
+    private String previousKeys; // Rotasyon sonrası çözme için eski anahtarlar: "kid1:base64,kid2:base64"
+
+    @Value("${encryption.legacy-key-id:}")
+    private String legacyKeyId; // Öneksiz (ECB) kayıtları çözen anahtar; boşsa mevcut anahtar
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private Map<String, SecretKeySpec> keys; // Uygulama açılışında bir kez türetilir
+    private SecretKeySpec currentKey;
+    private byte[] currentHeader;
+
+    // Cipher thread-safe değildir; her thread kendi örneğini tutar. GCM her çağrıda yeni nonce ile init edilir.
+    private final ThreadLocal<Cipher> gcmCipher = ThreadLocal.withInitial(() -> newCipher(TRANSFORMATION));
+    private final ThreadLocal<Cipher> legacyDecryptCipher = ThreadLocal.withInitial(this::newLegacyDecryptCipher);
+
+    @PostConstruct
+    void init() {
+        Map<String, SecretKeySpec> parsed = new HashMap<>();
+        if (StringUtils.hasText(previousKeys)) {
+            for (String entry : previousKeys.split(",")) {
+                String[] parts = entry.trim().split(":", 2);
+                if (parts.length != 2 || !StringUtils.hasText(parts[0]) || !StringUtils.hasText(parts[1])) {
+                    throw new IllegalStateException("Geçersiz encryption.previous-keys girdisi: " + entry);
+                }
+                parsed.put(parts[0].trim(), new SecretKeySpec(Base64.getDecoder().decode(parts[1].trim()), ALGORITHM));
+            }
+        }
+        currentKey = new SecretKeySpec(Base64.getDecoder().decode(SECRET_KEY), ALGORITHM);
+        parsed.put(keyId, currentKey);
+        keys = Map.copyOf(parsed);
+        currentHeader = header(keyId);
+    }
+
+    private static byte[] header(String kid) {
+        byte[] kidBytes = kid.getBytes(StandardCharsets.UTF_8);
+        if (kidBytes.length > 255) {
+            throw new IllegalStateException("Anahtar kimliği çok uzun: " + kid);
+        }
+        byte[] header = new byte[2 + kidBytes.length];
+        header[0] = ENVELOPE_VERSION;
+        header[1] = (byte) kidBytes.length;
+        System.arraycopy(kidBytes, 0, header, 2, kidBytes.length);
+        return header;
+    }
+
+    private static Cipher newCipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cipher oluşturulamadı: " + transformation, e);
+        }
+    }
+
+    private Cipher newLegacyDecryptCipher() {
+        String kid = StringUtils.hasText(legacyKeyId) ? legacyKeyId : keyId;
+        SecretKeySpec legacyKey = keys.get(kid);
+        if (legacyKey == null) {
+            throw new IllegalStateException("Eski format için anahtar bulunamadı: " + kid);
+        }
+        try {
+            Cipher cipher = Cipher.getInstance(LEGACY_TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, legacyKey);
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cipher oluşturulamadı: " + LEGACY_TRANSFORMATION, e);
+        }
+    }
+
     public String encrypt(String data) throws Exception {
-        byte[] keyBytes = Base64.getDecoder().decode(SECRET_KEY); // Base64'ü çöz
-        SecretKeySpec key = new SecretKeySpec(keyBytes, ALGORITHM);
-        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-        cipher.init(Cipher.ENCRYPT_MODE, key);
-        byte[] encryptedData = cipher.doFinal(data.getBytes());
-        return Base64.getEncoder().encodeToString(encryptedData);
+        byte[] envelope = encrypt(data.getBytes(StandardCharsets.UTF_8));
+        return ENVELOPE_PREFIX + Base64.getEncoder().encodeToString(envelope);
     }
 
     public String decrypt(String encryptedData) throws Exception {
         try {
-            byte[] keyBytes = Base64.getDecoder().decode(SECRET_KEY);
-            SecretKeySpec key = new SecretKeySpec(keyBytes, ALGORITHM);
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.DECRYPT_MODE, key);
-            byte[] decodedData = Base64.getDecoder().decode(encryptedData);
-            byte[] decryptedData = cipher.doFinal(decodedData);
-            return new String(decryptedData);
+            byte[] decryptedData;
+            if (encryptedData.startsWith(ENVELOPE_PREFIX)) {
+                decryptedData = decrypt(Base64.getDecoder().decode(encryptedData.substring(ENVELOPE_PREFIX.length())));
+            } else {
+                decryptedData = decryptLegacy(Base64.getDecoder().decode(encryptedData));
+            }
+            return new String(decryptedData, StandardCharsets.UTF_8);
         } catch (Exception e) {
             throw new RuntimeException("Desifreleme başarısız: " + encryptedData, e);
         }
     }
-}
\ No newline at end of file
+
+    /** Değer eski formatta veya mevcut anahtardan farklı bir anahtarla şifrelenmişse true döner. */
+    public boolean needsReencryption(String encryptedData) {
+        if (encryptedData == null || !encryptedData.startsWith(ENVELOPE_PREFIX)) {
+            return true;
+        }
+        byte[] envelope = Base64.getDecoder().decode(encryptedData.substring(ENVELOPE_PREFIX.length()));
+        if (envelope.length < 2 || envelope[0] != ENVELOPE_VERSION) {
+            return true;
+        }
+        int kidLength = Byte.toUnsignedInt(envelope[1]);
+        if (envelope.length < 2 + kidLength) {
+            return true;
+        }
+        return !keyId.equals(new String(envelope, 2, kidLength, StandardCharsets.UTF_8));
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    /** Zarf formatında (başlık + nonce + şifreli metin) şifreler. */
+    public byte[] encrypt(byte[] data) throws GeneralSecurityException {
+        byte[] nonce = new byte[NONCE_LENGTH];
+        secureRandom.nextBytes(nonce);
+        Cipher cipher = gcmCipher.get();
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, currentKey, new GCMParameterSpec(TAG_LENGTH_BITS, nonce));
+            cipher.updateAAD(currentHeader); // Başlık (sürüm + kid) tag ile korunur
+            byte[] envelope = new byte[currentHeader.length + NONCE_LENGTH + cipher.getOutputSize(data.length)];
+            System.arraycopy(currentHeader, 0, envelope, 0, currentHeader.length);
+            System.arraycopy(nonce, 0, envelope, currentHeader.length, NONCE_LENGTH);
+            cipher.doFinal(data, 0, data.length, envelope, currentHeader.length + NONCE_LENGTH);
+            return envelope;
+        } catch (GeneralSecurityException | RuntimeException e) {
+            gcmCipher.remove();
+            throw e;
+        }
+    }
+
+    public byte[] decrypt(byte[] envelope) throws GeneralSecurityException {
+        if (envelope.length < 2 || envelope[0] != ENVELOPE_VERSION) {
+            throw new GeneralSecurityException("Desteklenmeyen şifreli metin sürümü");
+        }
+        int headerLength = 2 + Byte.toUnsignedInt(envelope[1]);
+        if (envelope.length < headerLength + NONCE_LENGTH + TAG_LENGTH_BITS / 8) {
+            throw new GeneralSecurityException("Şifreli metin çok kısa");
+        }
+        String kid = new String(envelope, 2, headerLength - 2, StandardCharsets.UTF_8);
+        SecretKeySpec key = keys.get(kid);
+        if (key == null) {
+            throw new GeneralSecurityException("Bilinmeyen anahtar kimliği: " + kid);
+        }
+        Cipher cipher = gcmCipher.get();
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, envelope, headerLength, NONCE_LENGTH));
+            cipher.updateAAD(envelope, 0, headerLength);
+            int offset = headerLength + NONCE_LENGTH;
+            return cipher.doFinal(envelope, offset, envelope.length - offset);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            gcmCipher.remove();
+            throw e;
+        }
+    }
+
+    private byte[] decryptLegacy(byte[] encryptedData) throws GeneralSecurityException {
+        // Hatalı girdide Cipher'ın durumu garanti edilmediği için thread'in örneği atılır, sonraki çağrı yenisini oluşturur.
+        try {
+            return legacyDecryptCipher.get().doFinal(encryptedData);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            legacyDecryptCipher.remove();
+            throw e;
+        }
+    }
+
+    // ByteBuffer varyantları String dönüşümü olmadan tampondan tampona çalışır.
+    public ByteBuffer encrypt(ByteBuffer data) throws GeneralSecurityException {
+        return ByteBuffer.wrap(encrypt(remainingBytes(data)));
+    }
+
+    public ByteBuffer decrypt(ByteBuffer envelope) throws GeneralSecurityException {
+        return ByteBuffer.wrap(decrypt(remainingBytes(envelope)));
+    }
+
+    private static byte[] remainingBytes(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.remaining() == buffer.array().length) {
+            buffer.position(buffer.limit());
+            return buffer.array();
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    // Toplu işlemler: içe aktarma/listeleme döngülerinde String dönüşümü olmadan aynı thread'in Cipher'ı kullanılır.
+    public List<byte[]> encryptAll(List<byte[]> data) throws GeneralSecurityException {
+        List<byte[]> result = new ArrayList<>(data.size());
+        for (byte[] item : data) {
+            result.add(encrypt(item));
+        }
+        return result;
+    }
+
+    public List<byte[]> decryptAll(List<byte[]> envelopes) throws GeneralSecurityException {
+        List<byte[]> result = new ArrayList<>(envelopes.size());
+        for (byte[] item : envelopes) {
+            result.add(decrypt(item));
+        }
+        return result;
+    }
+}
@@ -2,14 +2,24 @@
 package com.project.Trinity.Util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import com.project.Trinity.Entity.User;
 
 import javax.crypto.SecretKey;
+import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,6 +28,12 @@ import java.util.function.Function;
 @Service
 public class JwtUtil {//JWT oluşturma, doğrulama ve bilgi çıkarma işlemlerini yapar.
 
+    public static final String ROLES_CLAIM = "roles";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    public static final String STATUS_CLAIM = "status";
+    public static final String ISSUED_AT_MS_CLAIM = "iat_ms"; // iat saniye hassasiyetlidir; iptal sınırı milisaniyeyle karşılaştırılır
+
     @Value("${jwt.secret}")
     private String secretKey;//@Value: application.properties’ten değerleri alır.
 
@@ -27,6 +43,61 @@ public class JwtUtil {//JWT oluşturma, doğrulama ve bilgi çıkarma işlemleri
     @Value("${jwt.refresh-token.expiration}")
     private long refreshTokenExpiration;
 
+    @Value("${jwt.key-id:default}")
+    private String keyId;//Yeni token'ların "kid" başlığına yazılır.
+
+    @Value("${jwt.previous-keys:}")
+    private String previousKeys;//Anahtar rotasyonu için eski anahtarlar: "kid1:base64,kid2:base64"
+
+    // Anahtar ve parser uygulama açılışında bir kez oluşturulur; her istekte yeniden türetilmez.
+    private SecretKey signingKey;
+    private Map<String, SecretKey> verificationKeys;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+
+        Map<String, SecretKey> keys = new HashMap<>();
+        if (StringUtils.hasText(previousKeys)) {
+            for (String entry : previousKeys.split(",")) {
+                String[] parts = entry.trim().split(":", 2);
+                if (parts.length != 2 || !StringUtils.hasText(parts[0]) || !StringUtils.hasText(parts[1])) {
+                    throw new IllegalStateException("Geçersiz jwt.previous-keys girdisi: " + entry);
+                }
+                keys.put(parts[0].trim(), Keys.hmacShaKeyFor(Decoders.BASE64.decode(parts[1].trim())));
+            }
+        }
+        keys.put(keyId, signingKey);
+        verificationKeys = Map.copyOf(keys);
+
+        // JwtParser immutable ve thread-safe'tir; tüm istekler aynı örneği paylaşır.
+        jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        String kid = header.getKeyId();
+                        if (kid == null) {
+                            return signingKey;//kid başlığı olmayan eski token'lar mevcut anahtarla doğrulanır.
+                        }
+                        SecretKey key = verificationKeys.get(kid);
+                        if (key == null) {
+                            throw new UnsupportedJwtException("Bilinmeyen anahtar kimliği: " + kid);
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Token'ı tek seferde çözümler ve doğrular (imza + süre). Geçersizse {@link JwtException} fırlatır.
+     * Filtre gibi sıcak yollar extractUsername/isTokenValid yerine bunu kullanmalı.
+     */
+    public VerifiedToken validateToken(String token) {
+        return new VerifiedToken(extractAllClaims(token));
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);//Token’ın kime ait olduğunu bulmak için.
     }
@@ -41,31 +112,35 @@ public class JwtUtil {//JWT oluşturma, doğrulama ve bilgi çıkarma işlemleri
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();//Token içeriğini çözümlemek için.
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);//Gizli anahtarı oluşturur.
-    }
-
     public String generateToken(UserDetails userDetails) {//Varsayılan token oluşturma metodu.
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof User user) {
+            // Filtrenin veritabanına gitmeden Authentication kurabilmesi için kimlik, rol ve durum token'a gömülür.
+            claims.put(USER_ID_CLAIM, user.getId());
+            claims.put(ROLE_CLAIM, user.getRole() != null ? user.getRole().name() : null);
+            claims.put(STATUS_CLAIM, user.getStatus() != null ? user.getStatus().name() : null);
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        // Ek claim'ler için örnek: extraClaims.put("roles", userDetails.getAuthorities());
+        long now = System.currentTimeMillis();
         return Jwts.builder()
+                .header().keyId(keyId).and()
                 .claims(extraClaims)
+                .claim(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .toList())
+                .claim(ISSUED_AT_MS_CLAIM, now)
                 .subject(userDetails.getUsername())
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + jwtExpiration))
+                .signWith(signingKey)
                 .compact();
     }//JWT oluşturur.Kullanıcıya erişim token’ı verir.
 /*
@@ -74,7 +149,7 @@ public class JwtUtil {//JWT oluşturma, doğrulama ve bilgi çıkarma işlemleri
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + refreshTokenExpiration))
-                .signWith(getSignInKey())
+                .signWith(signingKey)
                 .compact();
     }
 */
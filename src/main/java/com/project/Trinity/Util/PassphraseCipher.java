@@ -0,0 +1,132 @@
+package com.project.Trinity.Util;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kasa dışa aktarımında şifreleri sunucu anahtarı yerine kullanıcının parolasıyla şifreler; dosya Trinity dışında
+ * saklanabilir ve aynı parolayla geri içe aktarılabilir. Değer formatı:
+ * {@code "p1:" + Base64(16 bayt salt | 12 bayt nonce | şifreli metin + 16 bayt tag)}.
+ * Anahtar PBKDF2 ile salt başına bir kez türetilir; bir dışa aktarımdaki tüm değerler aynı salt'ı kullanır.
+ * Thread-safe'tir; Cipher örnekleri EncryptionUtil'deki gibi thread başına tutulur ve her çağrıda yeniden init edilir.
+ */
+public class PassphraseCipher {
+
+    private static final String PREFIX = "p1:";
+    private static final String KDF = "PBKDF2WithHmacSHA256";
+    private static final int ITERATIONS = 210_000;
+    private static final int KEY_BITS = 256;
+    private static final int SALT_LENGTH = 16;
+    private static final int NONCE_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+    private static final int MAX_SALTS = 4; // Her değere farklı salt koyan bir dosya her satırda PBKDF2 çalıştıramaz
+    public static final int MIN_PASSPHRASE_LENGTH = 12;
+
+    private static final SecureRandom secureRandom = new SecureRandom();
+    // Anahtardan bağımsız olduğu için tüm örnekler (her dışa/içe aktarma) aynı thread-local Cipher'ı kullanır
+    private static final ThreadLocal<Cipher> gcmCipher = ThreadLocal.withInitial(PassphraseCipher::newCipher);
+
+    private final char[] passphrase;
+    private final byte[] salt; // Şifreleme için; çözmede değerin içindeki salt kullanılır
+    private final Map<String, SecretKeySpec> keys = new ConcurrentHashMap<>();
+
+    public PassphraseCipher(String passphrase) {
+        if (passphrase == null || passphrase.length() < MIN_PASSPHRASE_LENGTH) {
+            throw new IllegalArgumentException("Parola en az " + MIN_PASSPHRASE_LENGTH + " karakter olmalı");
+        }
+        this.passphrase = passphrase.toCharArray();
+        this.salt = new byte[SALT_LENGTH];
+        secureRandom.nextBytes(salt);
+    }
+
+    public static boolean isEncrypted(String value) {
+        return value != null && value.startsWith(PREFIX);
+    }
+
+    public String encrypt(String plaintext) throws GeneralSecurityException {
+        byte[] nonce = new byte[NONCE_LENGTH];
+        secureRandom.nextBytes(nonce);
+        SecretKeySpec key = key(salt);
+        Cipher cipher = gcmCipher.get();
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, nonce));
+            byte[] data = plaintext.getBytes(StandardCharsets.UTF_8);
+            byte[] out = new byte[SALT_LENGTH + NONCE_LENGTH + cipher.getOutputSize(data.length)];
+            System.arraycopy(salt, 0, out, 0, SALT_LENGTH);
+            System.arraycopy(nonce, 0, out, SALT_LENGTH, NONCE_LENGTH);
+            cipher.doFinal(data, 0, data.length, out, SALT_LENGTH + NONCE_LENGTH);
+            return PREFIX + Base64.getEncoder().encodeToString(out);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            gcmCipher.remove();
+            throw e;
+        }
+    }
+
+    public String decrypt(String value) throws GeneralSecurityException {
+        if (!isEncrypted(value)) {
+            throw new GeneralSecurityException("Parola ile şifrelenmiş bir değer değil");
+        }
+        byte[] in;
+        try {
+            in = Base64.getDecoder().decode(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new GeneralSecurityException("Geçersiz Base64", e);
+        }
+        if (in.length < SALT_LENGTH + NONCE_LENGTH + TAG_LENGTH_BITS / 8) {
+            throw new GeneralSecurityException("Şifreli metin çok kısa");
+        }
+        SecretKeySpec key = key(Arrays.copyOf(in, SALT_LENGTH));
+        Cipher cipher = gcmCipher.get();
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, in, SALT_LENGTH, NONCE_LENGTH));
+            int offset = SALT_LENGTH + NONCE_LENGTH;
+            return new String(cipher.doFinal(in, offset, in.length - offset), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            gcmCipher.remove();
+            throw e;
+        }
+    }
+
+    private static Cipher newCipher() {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cipher oluşturulamadı: AES/GCM/NoPadding", e);
+        }
+    }
+
+    // PBKDF2 bilinçli olarak yavaştır; dosyadaki her değer için değil, her farklı salt için bir kez çalışır
+    private SecretKeySpec key(byte[] salt) throws GeneralSecurityException {
+        String id = Base64.getEncoder().encodeToString(salt);
+        SecretKeySpec key = keys.get(id);
+        return key != null ? key : derive(id, salt);
+    }
+
+    // Paralel çözmede aynı salt için türetme yalnızca bir kez yapılır
+    private synchronized SecretKeySpec derive(String id, byte[] salt) throws GeneralSecurityException {
+        SecretKeySpec key = keys.get(id);
+        if (key == null) {
+            if (keys.size() >= MAX_SALTS) {
+                throw new GeneralSecurityException("Dosyada çok fazla farklı salt var");
+            }
+            PBEKeySpec spec = new PBEKeySpec(passphrase, salt, ITERATIONS, KEY_BITS);
+            try {
+                key = new SecretKeySpec(SecretKeyFactory.getInstance(KDF).generateSecret(spec).getEncoded(), "AES");
+            } finally {
+                spec.clearPassword();
+            }
+            keys.put(id, key);
+        }
+        return key;
+    }
+}
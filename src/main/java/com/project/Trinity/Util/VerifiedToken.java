@@ -0,0 +1,54 @@
+package com.project.Trinity.Util;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+public class VerifiedToken {//İmzası ve süresi doğrulanmış token'ın içeriği; tek bir parse işleminin sonucudur.
+
+    private final String subject;
+    private final Date expiration;
+    private final List<String> roles;
+    private final Date issuedAt;
+    private final Claims claims;
+
+    VerifiedToken(Claims claims) {
+        this.claims = claims;
+        this.subject = claims.getSubject();
+        this.expiration = claims.getExpiration();
+        this.roles = readRoles(claims);
+        this.issuedAt = claims.getIssuedAt();
+    }
+
+    private static List<String> readRoles(Claims claims) {
+        Object value = claims.get(JwtUtil.ROLES_CLAIM);
+        if (!(value instanceof List<?> list)) {
+            return Collections.emptyList();
+        }
+        return list.stream().map(String::valueOf).toList();
+    }
+
+    public String getSubject() { return subject; }
+    public Date getExpiration() { return expiration; }
+    public List<String> getRoles() { return roles; }
+    public Date getIssuedAt() { return issuedAt; }
+
+    // Durumsuz yetkilendirme için token'a gömülen kullanıcı bilgileri; eski token'larda yoksa null döner.
+    public Long getUserId() {
+        Object value = claims.get(JwtUtil.USER_ID_CLAIM);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+    // Milisaniye hassasiyetli üretim zamanı; iat_ms içermeyen eski token'larda iat (saniyeye yuvarlanmış) kullanılır.
+    public Long getIssuedAtMillis() {
+        Object value = claims.get(JwtUtil.ISSUED_AT_MS_CLAIM);
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        return issuedAt != null ? issuedAt.getTime() : null;
+    }
+    public String getRole() { return claims.get(JwtUtil.ROLE_CLAIM, String.class); }
+    public String getStatus() { return claims.get(JwtUtil.STATUS_CLAIM, String.class); }
+    public Claims getClaims() { return claims; }
+}
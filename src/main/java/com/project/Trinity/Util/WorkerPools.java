@@ -0,0 +1,29 @@
+package com.project.Trinity.Util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Toplu içe aktarmalardaki CPU yoğun işler (BCrypt, AES) için sabit boyutlu, sınırlı kuyruklu havuzlar.
+ * Kuyruk dolunca iş çağıran thread'de çalışır; bellek ve CPU kullanımı sınırlı kalır.
+ */
+public final class WorkerPools {
+
+    private WorkerPools() {
+    }
+
+    /** configuredThreads 0 veya negatifse işlemci sayısı kadar thread kullanılır. */
+    public static int threadCount(int configuredThreads) {
+        return configuredThreads > 0 ? configuredThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public static ThreadPoolExecutor callerRuns(String threadName, int threads, int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, threadName);
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
@@ -0,0 +1,39 @@
+-- Hibernate (ddl-auto=update) tablolari olusturduktan sonra her acilista calisir; tum ifadeler tekrar calistirilabilir olmali.
+
+-- Surumlu AES-GCM zarfi eski 60 karakterlik kolona sigmaz
+ALTER TABLE passwords ALTER COLUMN password TYPE VARCHAR(512);
+
+-- Denetim olaylari: aylik bolumlenmis tablo (bolumler ve saklama AuditPartitionManager'da). JPA yonetmez.
+-- Birincil anahtar bolum anahtarini icermek zorundadir; ID'ler diziden toplu INSERT ile alinir.
+CREATE SEQUENCE IF NOT EXISTS audit_events_seq;
+CREATE TABLE IF NOT EXISTS audit_events (
+    id BIGINT NOT NULL DEFAULT nextval('audit_events_seq'),
+    occurred_at TIMESTAMP NOT NULL,
+    actor VARCHAR(100),
+    action VARCHAR(50) NOT NULL,
+    target_id BIGINT,
+    ip_address VARCHAR(45),
+    details VARCHAR(500),
+    PRIMARY KEY (id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+CREATE INDEX IF NOT EXISTS idx_audit_events_occurred_at ON audit_events (occurred_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_events_actor ON audit_events (actor, occurred_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_events_action ON audit_events (action, occurred_at DESC, id DESC);
+
+-- Dogrulama kodlari artik verification_codes tablosunda HMAC ozeti olarak tutulur; eski duz metin kodlar (15 dk gecerli) silinir
+DROP TABLE IF EXISTS password_reset_tokens;
+
+-- Refresh token'lar SHA-256 ozeti olarak tutulur; ozeti olmayan eski duz metin token'lar gecersizdir (kullanici yeniden giris yapar)
+DELETE FROM refresh_token WHERE token_hash IS NULL;
+ALTER TABLE refresh_token DROP COLUMN IF EXISTS token;
+-- Kullanici basina birden fazla token (cihaz basina bir): eski tek-token benzersiz indeksi kaldirilir
+DROP INDEX IF EXISTS uk_refresh_token_user_id;
+-- Upsert (ON CONFLICT (token_hash)) benzersiz indekse dayanir; ddl-auto eski tabloda kisiti eklemeyebilir
+CREATE UNIQUE INDEX IF NOT EXISTS uk_refresh_token_token_hash ON refresh_token (token_hash);
+
+-- Token iptal siniri (epoch ms): bu andan once uretilen erisim token'lari reddedilir; JDBC ile yazilir, entity'de eslenmez
+ALTER TABLE users ADD COLUMN IF NOT EXISTS tokens_valid_after BIGINT;
+
+-- Admin kullanici listesinde kullanici adi / e-posta onek aramasi (lower(x) LIKE 'abc%'); JPA ifade indeksi tanimlayamaz
+CREATE INDEX IF NOT EXISTS idx_users_username_lower ON users (lower(username) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_lower ON users (lower(email) text_pattern_ops);
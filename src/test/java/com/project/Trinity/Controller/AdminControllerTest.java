@@ -0,0 +1,73 @@
+package com.project.Trinity.Controller;
+
+import com.project.Trinity.DTO.AuditEventResponse;
+import com.project.Trinity.DTO.CursorPage;
+import com.project.Trinity.Repository.AuditEventRepository;
+import com.project.Trinity.Service.DashboardStats;
+import com.project.Trinity.Service.EmailDispatcher;
+import com.project.Trinity.Service.ExpirySweeper;
+import com.project.Trinity.Service.FrozenAccountPurger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdminControllerTest {
+
+    private AuditEventRepository auditEventRepository;
+    private AdminController controller;
+
+    @BeforeEach
+    void setUp() {
+        auditEventRepository = mock(AuditEventRepository.class);
+        controller = new AdminController(mock(DashboardStats.class), auditEventRepository, mock(EmailDispatcher.class),
+                mock(ExpirySweeper.class), mock(FrozenAccountPurger.class));
+    }
+
+    @Test
+    void fullPageCursorResumesAfterItsLastEvent() {
+        LocalDateTime lastAt = LocalDateTime.of(2026, 10, 1, 12, 0, 0, 123_456_000); // Saniyesi ve kesri imlece girmeli
+        when(auditEventRepository.findPage(any(), any(), any(), any(), isNull(), isNull(), eq(2)))
+                .thenReturn(List.of(event(9L, lastAt.plusMinutes(1)), event(7L, lastAt)));
+
+        String cursor = controller.getAuditEvents(null, null, null, null, null, 2).getBody().getNextCursor();
+        controller.getAuditEvents(null, null, null, null, cursor, 2);
+
+        verify(auditEventRepository).findPage(isNull(), isNull(), isNull(), isNull(), eq(lastAt), eq(7L), eq(2));
+    }
+
+    @Test
+    void shortPageEndsPagingAndSizeIsClamped() {
+        when(auditEventRepository.findPage(any(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(event(1L, LocalDateTime.of(2026, 10, 1, 0, 0))));
+
+        CursorPage<AuditEventResponse> page = controller.getAuditEvents(null, null, null, null, null, 1000).getBody();
+
+        assertThat(page.getNextCursor()).isNull();
+        verify(auditEventRepository).findPage(isNull(), isNull(), isNull(), isNull(), isNull(), isNull(), eq(200));
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> controller.getAuditEvents(null, null, null, null, CursorPage.encodeCursor("2026-10-01"), 50))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Geçersiz sayfa imleci");
+        assertThatThrownBy(() -> controller.getAuditEvents(null, null, null, null, "%%%", 50))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static AuditEventResponse event(Long id, LocalDateTime occurredAt) {
+        return new AuditEventResponse(id, occurredAt, "admin", "USER_UPDATED", 1L, null, null);
+    }
+}
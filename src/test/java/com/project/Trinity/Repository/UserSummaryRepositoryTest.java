@@ -0,0 +1,50 @@
+package com.project.Trinity.Repository;
+
+import com.project.Trinity.Entity.Role;
+import com.project.Trinity.Entity.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class UserSummaryRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private UserSummaryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        repository = new UserSummaryRepository(jdbcTemplate);
+    }
+
+    @Test
+    void searchIsALowercasePrefixWithLikeWildcardsEscaped() {
+        repository.findPage(null, null, "  Ali_100%\\ ", 0L, 20);
+
+        Object[] args = queryArgs();
+        assertThat(args).containsExactly(0L, "ali\\_100\\%\\\\%", "ali\\_100\\%\\\\%", 20);
+    }
+
+    @Test
+    void filtersAreBoundInOrderAndBlankSearchIsIgnored() {
+        repository.findPage(Status.INACTIVE, Role.ADMIN, " ", 42L, 50);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), any(Object[].class));
+        assertThat(sql.getValue()).contains("id > ?", "status = ?", "role = ?").doesNotContain("LIKE");
+        assertThat(queryArgs()).containsExactly(42L, "INACTIVE", "ADMIN", 50);
+    }
+
+    private Object[] queryArgs() {
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(any(String.class), any(RowMapper.class), args.capture());
+        return args.getValue();
+    }
+}
@@ -0,0 +1,109 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.AuditAction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class AuditLogWriterTest {
+
+    private final CountDownLatch workerBusy = new CountDownLatch(1);
+    private final CountDownLatch releaseWorker = new CountDownLatch(1);
+    private AuditLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        // Worker ilk batch'te takılır; böylece kuyruk doldurulabilir. Çağıran thread'deki yazmalar hemen döner.
+        doAnswer(invocation -> {
+            if (Thread.currentThread().getName().equals("audit-log-writer")) {
+                workerBusy.countDown();
+                releaseWorker.await(5, TimeUnit.SECONDS);
+            }
+            return new int[0];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        writer = new AuditLogWriter(jdbcTemplate, mock(AuditPartitionManager.class));
+        ReflectionTestUtils.setField(writer, "queueCapacity", 1);
+        ReflectionTestUtils.setField(writer, "batchSize", 200);
+        ReflectionTestUtils.setField(writer, "blockTimeoutMs", 10L);
+        ReflectionTestUtils.setField(writer, "maxRetries", 3);
+        ReflectionTestUtils.setField(writer, "shutdownTimeoutMs", 5000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseWorker.countDown();
+        writer.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void callerRunsWritesOverflowOnCallingThread() throws Exception {
+        fillQueue(AuditLogWriter.OverflowPolicy.CALLER_RUNS);
+
+        writer.record(AuditAction.USER_UPDATED, 3L, null);
+
+        assertThat(writer.getStats()).containsEntry("callerRuns", 1L).containsEntry("written", 1L)
+                .containsEntry("dropped", 0L);
+    }
+
+    @Test
+    void dropDiscardsAndCountsOverflow() throws Exception {
+        fillQueue(AuditLogWriter.OverflowPolicy.DROP);
+
+        writer.record(AuditAction.USER_UPDATED, 3L, null);
+
+        assertThat(writer.getStats()).containsEntry("dropped", 1L).containsEntry("written", 0L);
+    }
+
+    @Test
+    void blockFallsBackToCallerAfterTimeout() throws Exception {
+        fillQueue(AuditLogWriter.OverflowPolicy.BLOCK);
+
+        writer.record(AuditAction.USER_UPDATED, 3L, null);
+
+        assertThat(writer.getStats()).containsEntry("blockTimeouts", 1L).containsEntry("written", 1L);
+    }
+
+    @Test
+    void entriesRecordedInTransactionWaitForCommitAndAreDroppedOnRollback() throws Exception {
+        fillQueue(AuditLogWriter.OverflowPolicy.DROP);
+        TransactionSynchronizationManager.initSynchronization();
+
+        writer.record(AuditAction.USER_UPDATED, 3L, null);
+        writer.record(AuditAction.USER_DELETED, 4L, null);
+        assertThat(writer.getStats()).containsEntry("submitted", 2L);
+
+        TransactionSynchronizationManager.getSynchronizations().get(0).afterCommit();
+        assertThat(writer.getStats()).containsEntry("submitted", 3L).containsEntry("dropped", 1L);
+        TransactionSynchronizationManager.getSynchronizations().get(1)
+                .afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(writer.getStats()).containsEntry("submitted", 3L);
+    }
+
+    // Worker'ı ilk kayıtta meşgul eder ve ikinci kayıtla tek kapasiteli kuyruğu doldurur
+    private void fillQueue(AuditLogWriter.OverflowPolicy policy) throws InterruptedException {
+        ReflectionTestUtils.setField(writer, "overflowPolicy", policy);
+        writer.start();
+        writer.record(AuditAction.USER_CREATED, 1L, null);
+        assertThat(workerBusy.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.record(AuditAction.USER_CREATED, 2L, null);
+        assertThat(writer.getStats()).containsEntry("queued", 1L);
+    }
+}
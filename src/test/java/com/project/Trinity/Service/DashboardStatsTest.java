@@ -0,0 +1,79 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.Category;
+import com.project.Trinity.Entity.Status;
+import com.project.Trinity.Repository.AuditEventRepository;
+import com.project.Trinity.Repository.CategoryRepository;
+import com.project.Trinity.Repository.PasswordRepository;
+import com.project.Trinity.Repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DashboardStatsTest {
+
+    private PasswordRepository passwordRepository;
+    private UserRepository userRepository;
+    private CategoryRepository categoryRepository;
+    private DashboardStats stats;
+
+    @BeforeEach
+    void setUp() {
+        passwordRepository = mock(PasswordRepository.class);
+        userRepository = mock(UserRepository.class);
+        categoryRepository = mock(CategoryRepository.class);
+        stats = new DashboardStats(passwordRepository, userRepository, categoryRepository, mock(AuditEventRepository.class));
+    }
+
+    @Test
+    void categoriesWithTheSameNameAreSummedInDistribution() {
+        stats.categorySaved(1L, "Sosyal");
+        stats.categorySaved(2L, "Sosyal");
+        stats.categorySaved(3L, "İş");
+        stats.passwordCreated(1L, Status.ACTIVE);
+        stats.passwordCreated(2L, Status.ACTIVE);
+        stats.passwordCreated(2L, Status.ACTIVE);
+        stats.passwordCreated(3L, Status.INACTIVE);
+
+        assertThat(stats.getCategoryDistribution()).containsExactlyEntriesOf(Map.of("Sosyal", 3));
+        assertThat(stats.getPasswordCount()).isEqualTo(4);
+    }
+
+    @Test
+    void statusAndCategoryChangesMoveActiveCounts() {
+        stats.categorySaved(1L, "Sosyal");
+        stats.categorySaved(2L, "İş");
+        stats.passwordCreated(1L, Status.ACTIVE);
+
+        stats.passwordChanged(1L, Status.ACTIVE, 2L, Status.ACTIVE);
+        assertThat(stats.getCategoryDistribution()).containsExactlyEntriesOf(Map.of("İş", 1));
+
+        stats.passwordChanged(2L, Status.ACTIVE, 2L, Status.INACTIVE); // Silme
+        assertThat(stats.getCategoryDistribution()).isEmpty();
+    }
+
+    @Test
+    void reconcileReplacesDriftedCountersWithDatabaseValues() {
+        stats.userCreated();
+        stats.passwordCreated(1L, Status.ACTIVE);
+        Category category = new Category();
+        category.setId(1L);
+        category.setName("Sosyal");
+        when(passwordRepository.count()).thenReturn(10L);
+        when(userRepository.count()).thenReturn(5L);
+        when(passwordRepository.findActivePasswordCountByCategoryId()).thenReturn(List.<Object[]>of(new Object[]{1L, 7L}));
+        when(categoryRepository.findAll()).thenReturn(List.of(category));
+
+        stats.reconcile();
+
+        assertThat(stats.getPasswordCount()).isEqualTo(10);
+        assertThat(stats.getUserCount()).isEqualTo(5);
+        assertThat(stats.getCategoryDistribution()).containsExactlyEntriesOf(Map.of("Sosyal", 7));
+    }
+}
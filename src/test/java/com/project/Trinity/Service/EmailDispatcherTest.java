@@ -0,0 +1,148 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Repository.EmailOutboxRepository;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailDispatcherTest {
+
+    private static final String RETRY_PREFIX = "UPDATE email_outbox SET status = 'PENDING'";
+    private static final String FAILED_PREFIX = "UPDATE email_outbox SET status = 'FAILED', next_attempt_at = ?, body = NULL, last_error = ? WHERE";
+
+    private JavaMailSender mailSender;
+    private JdbcTemplate jdbcTemplate;
+    private EmailDispatcher dispatcher;
+    private ExecutorService workerPool;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = mock(JavaMailSender.class);
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        jdbcTemplate = mock(JdbcTemplate.class);
+
+        dispatcher = new EmailDispatcher(mailSender, jdbcTemplate, mock(EmailOutboxRepository.class));
+        ReflectionTestUtils.setField(dispatcher, "workers", 1);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 120L);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "backoffBaseSeconds", 10L);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaxSeconds", 25L);
+        // Poller başlatılmaz; dispatchOnce doğrudan çağrılır
+        workerPool = Executors.newSingleThreadExecutor();
+        ReflectionTestUtils.setField(dispatcher, "workerPool", workerPool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workerPool.shutdownNow();
+    }
+
+    @Test
+    void onlyTheRejectedMessageIsRetriedWithBackoff() throws Exception {
+        claim(row(1L, 1), row(2L, 2));
+        doAnswer(invocation -> {
+            MimeMessage[] messages = (MimeMessage[]) invocation.getRawArguments()[0];
+            throw new MailSendException(Map.of(messages[1], new IllegalStateException("mailbox full")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        long before = System.currentTimeMillis();
+        ReflectionTestUtils.invokeMethod(dispatcher, "dispatchOnce");
+
+        assertThat(sentRows()).singleElement().satisfies(args -> assertThat(args[1]).isEqualTo(1L));
+        ArgumentCaptor<Timestamp> nextAttempt = ArgumentCaptor.forClass(Timestamp.class);
+        verify(jdbcTemplate).update(startsWith(RETRY_PREFIX), nextAttempt.capture(), eq("mailbox full"), eq(2L));
+        assertThat(nextAttempt.getValue().getTime() - before).isBetween(19_000L, 21_000L); // 10 << (2 - 1)
+        assertThat(dispatcher.getStats()).containsEntry("sent", 1L).containsEntry("retried", 1L);
+    }
+
+    @Test
+    void failureOnFinalAttemptIsPermanentAndBackoffIsCapped() throws Exception {
+        claim(row(1L, 3), row(2L, 2));
+        ReflectionTestUtils.setField(dispatcher, "backoffBaseSeconds", 20L);
+        doThrow(new MailSendException("connection refused")).when(mailSender).send(any(MimeMessage[].class));
+
+        long before = System.currentTimeMillis();
+        ReflectionTestUtils.invokeMethod(dispatcher, "dispatchOnce");
+
+        verify(jdbcTemplate).update(startsWith(FAILED_PREFIX), any(Timestamp.class), eq("connection refused"), eq(1L));
+        ArgumentCaptor<Timestamp> nextAttempt = ArgumentCaptor.forClass(Timestamp.class);
+        verify(jdbcTemplate).update(startsWith(RETRY_PREFIX), nextAttempt.capture(), anyString(), eq(2L));
+        assertThat(nextAttempt.getValue().getTime() - before).isBetween(24_000L, 26_000L); // 40 sn, 25 sn'ye sınırlandı
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        assertThat(dispatcher.getStats()).containsEntry("failed", 1L).containsEntry("retried", 1L);
+    }
+
+    @Test
+    void expiredLeasesWithoutAttemptsLeftAreCountedAsFailed() throws Exception {
+        when(jdbcTemplate.update(contains("Lease expired"), any(Object[].class))).thenReturn(2);
+        claim();
+
+        int claimed = ReflectionTestUtils.invokeMethod(dispatcher, "dispatchOnce");
+
+        assertThat(claimed).isZero();
+        assertThat(dispatcher.getStats()).containsEntry("failed", 2L);
+        verify(mailSender, never()).send(any(MimeMessage[].class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> sentRows() {
+        ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE email_outbox SET status = 'SENT'"), args.capture());
+        return args.getValue();
+    }
+
+    // CLAIM sorgusu verilen satırları döndürür; her satır { id, attempts }
+    @SuppressWarnings("unchecked")
+    private void claim(long[]... rows) {
+        when(jdbcTemplate.query(startsWith("UPDATE email_outbox SET status = 'SENDING'"), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    RowMapper<Object> mapper = invocation.getArgument(1);
+                    List<Object> mapped = new ArrayList<>();
+                    for (long[] row : rows) {
+                        ResultSet rs = mock(ResultSet.class);
+                        when(rs.getLong("id")).thenReturn(row[0]);
+                        when(rs.getString("recipient")).thenReturn("kullanici" + row[0] + "@example.com");
+                        when(rs.getString("subject")).thenReturn("Doğrulama kodu");
+                        when(rs.getString("body")).thenReturn("<p>123456</p>");
+                        when(rs.getInt("attempts")).thenReturn((int) row[1]);
+                        mapped.add(mapper.mapRow(rs, mapped.size()));
+                    }
+                    return mapped;
+                });
+    }
+
+    private static long[] row(long id, int attempts) {
+        return new long[]{id, attempts};
+    }
+}
@@ -0,0 +1,37 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Repository.EmailOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailServiceTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void codeEmailsStateTheConfiguredCodeLifetime() {
+        EmailTemplateEngine templateEngine = mock(EmailTemplateEngine.class);
+        when(templateEngine.render(anyString(), any(Locale.class), any()))
+                .thenReturn(new EmailTemplateEngine.RenderedEmail("Kod", "<p>Kod</p>"));
+        EmailService emailService = new EmailService(mock(EmailOutboxRepository.class), mock(EmailDispatcher.class), templateEngine);
+        ReflectionTestUtils.setField(emailService, "supportEmail", "destek@example.com");
+        ReflectionTestUtils.setField(emailService, "codeTtlMinutes", 30L);
+
+        emailService.sendResetCodeEmail("ayse@example.com", "123456");
+
+        ArgumentCaptor<Map<String, String>> variables = ArgumentCaptor.forClass(Map.class);
+        verify(templateEngine).render(eq("reset-code"), any(Locale.class), variables.capture());
+        assertThat(variables.getValue()).containsEntry("validMinutes", "30").containsEntry("code", "123456");
+    }
+}
@@ -0,0 +1,54 @@
+package com.project.Trinity.Service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailTemplateEngineTest {
+
+    private static final Map<String, String> VARIABLES =
+            Map.of("code", "123456", "validMinutes", "15", "supportEmail", "destek@example.com");
+
+    private EmailTemplateEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new EmailTemplateEngine();
+        ReflectionTestUtils.setField(engine, "defaultLanguage", "tr");
+        engine.load();
+    }
+
+    @Test
+    void variablesAreHtmlEscapedInBody() {
+        EmailTemplateEngine.RenderedEmail email = engine.render("reset-code", Locale.forLanguageTag("tr"),
+                Map.of("code", "<b>1&2</b>", "validMinutes", "15", "supportEmail", "\"destek\"@example.com"));
+
+        assertThat(email.html())
+                .contains("<strong>&lt;b&gt;1&amp;2&lt;/b&gt;</strong>")
+                .contains("&quot;destek&quot;@example.com")
+                .doesNotContain("{{");
+    }
+
+    @Test
+    void localizedVariantIsUsedAndUnknownLanguagesFallBackToDefault() {
+        assertThat(engine.render("reset-code", Locale.ENGLISH, VARIABLES).subject()).isEqualTo("Trinity Password Reset Code");
+        assertThat(engine.render("reset-code", Locale.GERMAN, VARIABLES).subject()).isEqualTo("Trinity Şifre Sıfırlama Kodu");
+        assertThat(engine.render("reset-code", null, VARIABLES).html()).contains("Bu kod 15 dakika boyunca geçerlidir.");
+    }
+
+    @Test
+    void missingVariableOrTemplateIsRejected() {
+        assertThatThrownBy(() -> engine.render("reset-code", Locale.ENGLISH, Map.of("code", "123456")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Şablon değişkeni eksik");
+        assertThatThrownBy(() -> engine.render("welcome", Locale.ENGLISH, VARIABLES))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("welcome");
+    }
+}
@@ -0,0 +1,95 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.ProfilePictureSize;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImagePipelineTest {
+
+    private ImagePipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new ImagePipeline();
+        ReflectionTestUtils.setField(pipeline, "workers", 1);
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", 1);
+        ReflectionTestUtils.setField(pipeline, "maxPixels", 1_000_000L);
+        ReflectionTestUtils.setField(pipeline, "jpegQuality", 0.85f);
+        ReflectionTestUtils.setField(pipeline, "timeoutMs", 10_000L);
+        pipeline.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    @Test
+    void producesSquareJpegVariantsFromTheCenterOfTheImage() throws Exception {
+        Map<ProfilePictureSize, byte[]> variants = pipeline.normalize(png(900, 600));
+
+        for (ProfilePictureSize size : ProfilePictureSize.values()) {
+            BufferedImage variant = ImageIO.read(new ByteArrayInputStream(variants.get(size)));
+            assertThat(variant.getWidth()).isEqualTo(size.getPixels());
+            assertThat(variant.getHeight()).isEqualTo(size.getPixels());
+        }
+        assertThat(pipeline.getStats()).containsEntry("processed", 1L);
+    }
+
+    @Test
+    void rejectsImagesAboveThePixelLimitAndNonImages() throws Exception {
+        byte[] huge = png(1001, 1000);
+
+        assertThatThrownBy(() -> pipeline.normalize(huge))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Resim çözünürlüğü çok yüksek");
+        assertThatThrownBy(() -> pipeline.normalize("<svg></svg>".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("PNG, JPEG, GIF veya BMP");
+        assertThat(pipeline.getStats()).containsEntry("failed", 2L);
+    }
+
+    @Test
+    void rejectsInsteadOfWaitingWhenWorkersAndQueueAreFull() throws Exception {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(pipeline, "executor");
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release)); // Tek worker meşgul
+        executor.execute(() -> awaitQuietly(release)); // Kuyruk dolu
+        try {
+            byte[] image = png(10, 10);
+            assertThatThrownBy(() -> pipeline.normalize(image)).isInstanceOf(ImageProcessingBusyException.class);
+            assertThat(pipeline.getStats()).containsEntry("rejected", 1L);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.DTO.PasswordSummary;
+import com.project.Trinity.Entity.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class MostViewedCacheTest {
+
+    private MostViewedCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MostViewedCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "size", 3);
+        ReflectionTestUtils.setField(cache, "maxUsers", 100);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 600L);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void listIsLoadedOnceAndLargerLimitsBypassTheCache() {
+        cache.get(1L, 2, loader(summary(10L, 5), summary(11L, 3)));
+        List<PasswordSummary> cached = cache.get(1L, 1, loader());
+
+        assertThat(cached).extracting(PasswordSummary::getId).containsExactly(10L);
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get(1L, 4, loader())).isNull();
+    }
+
+    @Test
+    void flushedViewsReorderListedEntriesWithoutReload() {
+        cache.get(1L, 3, loader(summary(10L, 5), summary(11L, 3)));
+
+        cache.onViewsFlushed(1L, 11L, 4);
+
+        assertThat(cache.get(1L, 3, loader()))
+                .extracting(PasswordSummary::getId, PasswordSummary::getViewCount)
+                .containsExactly(tuple(11L, 7L), tuple(10L, 5L));
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void viewsOfUnlistedPasswordInvalidateTheList() {
+        cache.get(1L, 3, loader(summary(10L, 5)));
+
+        cache.onViewsFlushed(1L, 99L, 1);
+        cache.get(1L, 3, loader(summary(99L, 6), summary(10L, 5)));
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evictionDuringLoadOnlyDiscardsThatUsersResult() {
+        cache.get(2L, 3, () -> {
+            cache.evict(1L); // Başka bir kullanıcının invalidation'ı bu yüklemeyi etkilememeli
+            loads.incrementAndGet();
+            return List.of(summary(20L, 1));
+        });
+        cache.get(1L, 3, () -> {
+            cache.evict(1L);
+            loads.incrementAndGet();
+            return List.of(summary(10L, 1));
+        });
+
+        cache.get(2L, 3, loader());
+        cache.get(1L, 3, loader(summary(10L, 2)));
+
+        assertThat(loads).hasValue(3);
+    }
+
+    private Supplier<List<PasswordSummary>> loader(PasswordSummary... items) {
+        return () -> {
+            loads.incrementAndGet();
+            return List.of(items);
+        };
+    }
+
+    private static PasswordSummary summary(Long id, long viewCount) {
+        return new PasswordSummary(id, 1L, "Sosyal", "kayıt" + id, "ayse", null, Status.ACTIVE, false, viewCount);
+    }
+}
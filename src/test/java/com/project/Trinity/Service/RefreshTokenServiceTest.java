@@ -0,0 +1,125 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.User;
+import com.project.Trinity.Util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+
+    private static final String LOOKUP_PREFIX = "SELECT t.user_id";
+    private static final String PRUNE_PREFIX = "DELETE FROM refresh_token WHERE user_id = ? AND";
+
+    private JdbcTemplate jdbcTemplate;
+    private RefreshTokenService service;
+    private long expiresAt;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("ayse");
+        UserDetailsCache userDetailsCache = mock(UserDetailsCache.class);
+        when(userDetailsCache.findByUsername("ayse")).thenReturn(Optional.of(user));
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        when(jwtUtil.generateToken(user)).thenReturn("access-token");
+
+        service = new RefreshTokenService(jdbcTemplate, userDetailsCache, jwtUtil);
+        ReflectionTestUtils.setField(service, "validityDays", 7L);
+        ReflectionTestUtils.setField(service, "maxPerUser", 5);
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 100);
+        ReflectionTestUtils.setField(service, "cacheTtlSeconds", 60L);
+        expiresAt = System.currentTimeMillis() + 3_600_000;
+        stubLookup();
+    }
+
+    @Test
+    void onlyTheHashIsStoredAndOldestTokensBeyondTheLimitArePruned() {
+        String token = service.createRefreshToken("ayse");
+
+        ArgumentCaptor<Object> hash = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).update(startsWith("INSERT INTO refresh_token"), hash.capture(), eq(7L), any(Timestamp.class));
+        assertThat((String) hash.getValue()).hasSize(64).doesNotContain(token);
+        verify(jdbcTemplate).update(startsWith(PRUNE_PREFIX), eq(7L), any(Timestamp.class), eq(7L), eq(5));
+    }
+
+    @Test
+    void verifiedTokenIsServedFromCache() {
+        assertThat(service.generateNewAccessToken("istemci-token")).isEqualTo("access-token");
+        service.generateNewAccessToken("istemci-token");
+
+        verify(jdbcTemplate, times(1)).query(startsWith(LOOKUP_PREFIX), any(RowMapper.class), any(Object[].class));
+        assertThat(service.getStats()).containsEntry("hits", 1L).containsEntry("misses", 1L);
+    }
+
+    @Test
+    void pruningANewLoginDropsTheUsersCachedTokens() {
+        service.generateNewAccessToken("istemci-token");
+        when(jdbcTemplate.update(startsWith(PRUNE_PREFIX), anyLong(), any(), anyLong(), anyInt())).thenReturn(1);
+
+        service.createRefreshToken("ayse");
+        service.generateNewAccessToken("istemci-token");
+
+        verify(jdbcTemplate, times(2)).query(startsWith(LOOKUP_PREFIX), any(RowMapper.class), any(Object[].class));
+        assertThat(service.getStats()).containsEntry("evictions", 1L);
+    }
+
+    @Test
+    void lookupRacingWithEvictionIsNotCached() {
+        when(jdbcTemplate.query(startsWith(LOOKUP_PREFIX), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> {
+                    service.evictUser(7L); // DB okuması sürerken token silindi
+                    return List.of(mapRow(invocation.getArgument(1)));
+                });
+
+        service.generateNewAccessToken("istemci-token");
+
+        assertThat(service.getStats()).containsEntry("size", 0L);
+    }
+
+    @Test
+    void expiredOrUnknownTokensAreRejected() {
+        expiresAt = System.currentTimeMillis() - 1;
+        assertThatThrownBy(() -> service.generateNewAccessToken("süresi-dolmuş"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+
+        when(jdbcTemplate.query(startsWith(LOOKUP_PREFIX), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+        assertThatThrownBy(() -> service.generateNewAccessToken("bilinmeyen"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    private void stubLookup() {
+        when(jdbcTemplate.query(startsWith(LOOKUP_PREFIX), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(invocation -> List.of(mapRow(invocation.getArgument(1))));
+    }
+
+    private Object mapRow(RowMapper<?> mapper) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("user_id")).thenReturn(7L);
+        when(rs.getString("username")).thenReturn("ayse");
+        when(rs.getTimestamp("expiry_date")).thenReturn(new Timestamp(expiresAt));
+        return mapper.mapRow(rs, 0);
+    }
+}
@@ -0,0 +1,88 @@
+package com.project.Trinity.Service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        service = new TokenRevocationService(jdbcTemplate);
+        ReflectionTestUtils.setField(service, "cacheTtlSeconds", 30L);
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 1000);
+    }
+
+    @Test
+    void revocationRejectsEarlierTokensAndAcceptsTokensIssuedAfterIt() {
+        long before = System.currentTimeMillis();
+        service.revokeUser(1L);
+
+        long validAfter = persistedCutoff();
+        assertThat(service.isRevoked(1L, before)).isTrue();
+        assertThat(service.isRevoked(1L, validAfter - 1)).isTrue();
+        assertThat(service.isRevoked(1L, validAfter)).isFalse(); // Aynı saniyede, iptalden sonra alınan token geçerli
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    void cutoffIsReadFromDatabaseOnceAndCached() {
+        stubCutoff(5L, List.of(1_000L));
+
+        assertThat(service.isRevoked(5L, 999L)).isTrue();
+        assertThat(service.isRevoked(5L, 1_000L)).isFalse();
+        assertThat(service.isRevoked(5L, 2_000L)).isFalse();
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowMapper.class), eq(5L));
+    }
+
+    @Test
+    void tokensOfDeletedUsersAndTokensWithoutIdentityAreRevoked() {
+        stubCutoff(9L, List.of());
+
+        assertThat(service.isRevoked(9L, System.currentTimeMillis())).isTrue();
+        assertThat(service.isRevoked(null, System.currentTimeMillis())).isTrue();
+        assertThat(service.isRevoked(1L, null)).isTrue();
+    }
+
+    @Test
+    void staleDatabaseReadDoesNotUndoLocalRevocation() {
+        stubCutoff(3L, List.of(0L));
+        assertThat(service.isRevoked(3L, 10L)).isFalse();
+
+        service.revokeUser(3L);
+        ReflectionTestUtils.setField(service, "cacheTtlSeconds", 0L); // Sonraki okuma DB'ye gider ve eski değeri görür
+        service.revokeUser(3L);
+
+        assertThat(service.isRevoked(3L, 10L)).isTrue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubCutoff(long userId, List<Long> rows) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(userId))).thenReturn((List) rows);
+    }
+
+    private long persistedCutoff() {
+        ArgumentCaptor<Object> args = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).update(anyString(), args.capture(), eq(1L));
+        return (Long) args.getValue();
+    }
+}
@@ -0,0 +1,127 @@
+package com.project.Trinity.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.Trinity.DTO.BulkImportResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserBulkServiceTest {
+
+    private UserBulkService service;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        // Çakışma yok: RETURNING her satırın kullanıcı adını döndürür (satır başına 6 parametre, ilki kullanıcı adı)
+        doAnswer(invocation -> {
+            Object[] args = (Object[]) invocation.getRawArguments()[2];
+            List<String> usernames = new ArrayList<>();
+            for (int i = 0; i < args.length; i += 6) {
+                usernames.add((String) args[i]);
+            }
+            return usernames;
+        }).when(jdbcTemplate).queryForList(anyString(), eq(String.class), any(Object[].class));
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(any())).thenReturn("hash");
+
+        service = new UserBulkService(jdbcTemplate, mock(JdbcTemplate.class), transactionTemplate, passwordEncoder,
+                mock(AuditLogWriter.class), mock(DashboardStats.class), new ObjectMapper());
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        ReflectionTestUtils.setField(service, "hashThreads", 2);
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 100);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void ndjsonRowErrorsPointAtTheLineWhereEachObjectStarts() throws Exception {
+        String ndjson = String.join("\n",
+                row("ayse", "ayse@example.com", "05550000001"),
+                row("mehmet", "gecersiz", "05550000002"),
+                "{\"username\": \"zeynep\",",
+                " \"email\": \"zeynep@example.com\", \"phone\": \"123\", \"password\": \"parola1234\"}",
+                row("ali", "ali@example.com", "05550000004"),
+                row("can", "eposta-yok", "05550000005"));
+
+        BulkImportResult result = service.importNdjson(stream(ndjson));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors())
+                .extracting(BulkImportResult.RowError::getLine, BulkImportResult.RowError::getMessage)
+                .containsExactly(
+                        tuple(2L, "Geçerli bir e-posta giriniz"),
+                        tuple(3L, "Telefon numarası 10-15 karakter olmalı"),
+                        tuple(6L, "Geçerli bir e-posta giriniz"));
+    }
+
+    @Test
+    void ndjsonStopsAtMalformedLineAndKeepsEarlierRows() throws Exception {
+        String ndjson = String.join("\n",
+                row("ayse", "ayse@example.com", "05550000001"),
+                row("mehmet", "mehmet@example.com", "05550000002"),
+                "{\"username\": \"bozuk\", ",
+                "",
+                "]",
+                row("ali", "ali@example.com", "05550000004"));
+
+        BulkImportResult result = service.importNdjson(stream(ndjson));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(5);
+            assertThat(error.getMessage()).startsWith("Geçersiz JSON");
+        });
+    }
+
+    @Test
+    void csvReportsRecordStartLineAndDuplicatesWithinFile() throws Exception {
+        String csv = "username,email,phone,password\n"
+                + "ayse,ayse@example.com,05550000001,parola1234\n"
+                + "\"mehmet\",\"çok\nsatırlı\",05550000002,parola1234\n"
+                + "ayse2,ayse@example.com,05550000003,parola1234\n";
+
+        BulkImportResult result = service.importCsv(new StringReader(csv));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors())
+                .extracting(BulkImportResult.RowError::getLine)
+                .containsExactly(3L, 5L);
+    }
+
+    private static String row(String username, String email, String phone) {
+        return "{\"username\": \"" + username + "\", \"email\": \"" + email + "\", \"phone\": \"" + phone
+                + "\", \"password\": \"parola1234\"}";
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
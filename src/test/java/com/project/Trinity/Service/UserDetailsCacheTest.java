@@ -0,0 +1,97 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.User;
+import com.project.Trinity.Repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserDetailsCacheTest {
+
+    private UserRepository userRepository;
+    private UserDetailsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("ayse")).thenReturn(Optional.of(user(1L, "ayse")));
+        cache = new UserDetailsCache(userRepository, 2, 300);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void secondLookupIsServedFromCache() {
+        cache.findByUsername("ayse");
+        cache.findByUsername("ayse");
+
+        verify(userRepository, times(1)).findByUsername("ayse");
+        assertThat(cache.getStats()).containsEntry("hits", 1L).containsEntry("misses", 1L);
+    }
+
+    @Test
+    void evictByIdForcesReload() {
+        cache.findByUsername("ayse");
+        cache.evictById(1L);
+        cache.findByUsername("ayse");
+
+        verify(userRepository, times(2)).findByUsername("ayse");
+    }
+
+    @Test
+    void readStartedBeforeInvalidationIsNotCached() {
+        long observed = cache.currentGeneration();
+        cache.evict("ayse"); // DB okuması sürerken kullanıcı güncellendi
+
+        cache.put(user(1L, "ayse"), observed);
+
+        assertThat(cache.get("ayse")).isNull();
+    }
+
+    @Test
+    void entryCachedBeforeCommitIsRemovedAgainAfterCompletion() {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evict("ayse");
+        cache.put(user(1L, "ayse"), cache.currentGeneration()); // Commit'ten önce başka bir istek eski satırı okudu
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThat(cache.get("ayse")).isNull();
+    }
+
+    @Test
+    void expiredEntriesAreMissesAndSizeIsBounded() {
+        UserDetailsCache noTtl = new UserDetailsCache(userRepository, 2, 0);
+        noTtl.put(user(1L, "ayse"), noTtl.currentGeneration());
+        assertThat(noTtl.get("ayse")).isNull();
+
+        for (long id = 1; id <= 5; id++) {
+            cache.put(user(id, "kullanici" + id), cache.currentGeneration());
+        }
+        assertThat(cache.getStats().get("size")).isEqualTo(2L);
+        assertThat(cache.getStats().get("evictions")).isEqualTo(3L);
+    }
+
+    private static User user(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        return user;
+    }
+}
@@ -0,0 +1,70 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.Role;
+import com.project.Trinity.Entity.Status;
+import com.project.Trinity.Entity.User;
+import com.project.Trinity.Repository.PasswordViewEventRepository;
+import com.project.Trinity.Repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceTest {
+
+    private TokenRevocationService tokenRevocationService;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("ayse");
+        user.setPassword("hash");
+        user.setEmail("ayse@example.com");
+        user.setPhone("05550000001");
+        user.setStatus(Status.ACTIVE);
+        user.setRole(Role.USER);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(any())).thenReturn("new-hash");
+        tokenRevocationService = mock(TokenRevocationService.class);
+
+        userService = new UserService(userRepository, mock(VerificationCodeService.class), passwordEncoder,
+                mock(EmailService.class), mock(PasswordService.class), mock(AuditLogWriter.class), tokenRevocationService,
+                mock(UserDetailsCache.class), mock(PasswordViewEventRepository.class), mock(DashboardStats.class));
+    }
+
+    @Test
+    void contactDetailChangesKeepSessions() {
+        userService.updateUser(1L, "ayse", "", "yeni@example.com", "05550000009", "ACTIVE", "USER");
+
+        verify(tokenRevocationService, never()).revokeUser(any());
+    }
+
+    @Test
+    void renameRevokesTokensBecauseSubjectClaimIsStale() {
+        userService.updateUser(1L, "ayse.yilmaz", null, "ayse@example.com", "05550000001", null, null);
+
+        verify(tokenRevocationService).revokeUser(1L);
+    }
+
+    @Test
+    void passwordRoleOrStatusChangeRevokesTokens() {
+        userService.updateUser(1L, "ayse", "yeni-parola-123", "ayse@example.com", "05550000001", null, null);
+        userService.updateUser(1L, "ayse", null, "ayse@example.com", "05550000001", null, "ADMIN");
+        userService.updateUser(1L, "ayse", null, "ayse@example.com", "05550000001", "INACTIVE", null);
+
+        verify(tokenRevocationService, times(3)).revokeUser(1L);
+    }
+}
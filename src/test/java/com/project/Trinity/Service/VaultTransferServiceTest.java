@@ -0,0 +1,125 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.DTO.BulkImportResult;
+import com.project.Trinity.Util.EncryptionUtil;
+import com.project.Trinity.Util.PassphraseCipher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringReader;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VaultTransferServiceTest {
+
+    private static final long USER_ID = 7L;
+    private static final long CATEGORY_ID = 3L;
+
+    private JdbcTemplate jdbcTemplate;
+    private EncryptionUtil encryptionUtil;
+    private VaultTransferService service;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), any())).thenReturn(1);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        encryptionUtil = new EncryptionUtil();
+        ReflectionTestUtils.setField(encryptionUtil, "SECRET_KEY", Base64.getEncoder().encodeToString(new byte[16]));
+        ReflectionTestUtils.setField(encryptionUtil, "keyId", "default");
+        ReflectionTestUtils.setField(encryptionUtil, "previousKeys", "");
+        ReflectionTestUtils.setField(encryptionUtil, "legacyKeyId", "");
+        ReflectionTestUtils.invokeMethod(encryptionUtil, "init");
+
+        service = new VaultTransferService(jdbcTemplate, mock(JdbcTemplate.class), transactionTemplate, encryptionUtil,
+                mock(DashboardStats.class), mock(MostViewedCache.class));
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        ReflectionTestUtils.setField(service, "encryptThreads", 2);
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 100);
+        service.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void reportsPasswordsWhoseEnvelopeWouldOverflowTheColumnAsRowErrors() throws Exception {
+        String csv = "title,password\nçok uzun," + "ş".repeat(256) + "\nkısa,abc\n"; // 256 karakter, 512 bayt
+
+        BulkImportResult result = service.importCsv(USER_ID, new StringReader(csv), CATEGORY_ID, null);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(2);
+            assertThat(error.getMessage()).contains("bayt");
+        });
+        List<Object[]> inserted = insertedRows();
+        assertThat(inserted).hasSize(1);
+        assertThat(encryptionUtil.decrypt((String) inserted.get(0)[5])).isEqualTo("abc");
+    }
+
+    @Test
+    void longestAllowedPasswordFitsTheColumn() throws Exception {
+        String csv = "title,password\nsınırda," + "ş".repeat(160) + "\n"; // 320 bayt
+
+        BulkImportResult result = service.importCsv(USER_ID, new StringReader(csv), CATEGORY_ID, null);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat((String) insertedRows().get(0)[5]).hasSizeLessThanOrEqualTo(512);
+    }
+
+    @Test
+    void decryptsPassphraseProtectedValuesOnlyWithThePassphrase() throws Exception {
+        String encrypted = new PassphraseCipher("dışa-aktarma-parolası").encrypt("kasa şifresi");
+        String csv = "name,login_password\nkayıt," + encrypted + "\n";
+
+        BulkImportResult withoutCipher = service.importCsv(USER_ID, new StringReader(csv), CATEGORY_ID, null);
+        assertThat(withoutCipher.getImported()).isZero();
+        assertThat(withoutCipher.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getMessage()).contains("içe aktarma parolası gerekli"));
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(List.class));
+
+        BulkImportResult withCipher = service.importCsv(USER_ID, new StringReader(csv), CATEGORY_ID,
+                new PassphraseCipher("dışa-aktarma-parolası"));
+        assertThat(withCipher.getImported()).isEqualTo(1);
+        assertThat(encryptionUtil.decrypt((String) insertedRows().get(0)[5])).isEqualTo("kasa şifresi");
+    }
+
+    @Test
+    void rejectsHeaderWithoutPasswordColumn() {
+        assertThatThrownBy(() -> service.importCsv(USER_ID, new StringReader("title,username\na,b\n"), CATEGORY_ID, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> insertedRows() {
+        ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), args.capture());
+        return args.getValue();
+    }
+}
@@ -0,0 +1,77 @@
+package com.project.Trinity.Service;
+
+import com.project.Trinity.Entity.VerificationCode;
+import com.project.Trinity.Entity.VerificationPurpose;
+import com.project.Trinity.Repository.VerificationCodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VerificationCodeServiceTest {
+
+    private final Map<String, VerificationCode> stored = new HashMap<>();
+    private VerificationCodeService service;
+
+    @BeforeEach
+    void setUp() {
+        VerificationCodeRepository repository = mock(VerificationCodeRepository.class);
+        when(repository.save(any(VerificationCode.class))).thenAnswer(invocation -> {
+            VerificationCode code = invocation.getArgument(0);
+            stored.put(code.getCodeHash(), code);
+            return code;
+        });
+        when(repository.findByCodeHash(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(stored.get(invocation.<String>getArgument(0))));
+        when(repository.existsByCodeHash(anyString()))
+                .thenAnswer(invocation -> stored.containsKey(invocation.<String>getArgument(0)));
+
+        service = new VerificationCodeService(repository);
+        ReflectionTestUtils.setField(service, "hmacKey", "test-hmac-key");
+        ReflectionTestUtils.setField(service, "codeTtlMinutes", 15L);
+        service.init();
+    }
+
+    @Test
+    void codeMatchesOnlyItsOwnerAndPurpose() {
+        String code = service.issue(1L, VerificationPurpose.VIEW_PASSWORD);
+
+        assertThat(service.find(1L, VerificationPurpose.VIEW_PASSWORD, code)).isPresent();
+        assertThat(service.find(2L, VerificationPurpose.VIEW_PASSWORD, code)).isEmpty();
+        assertThat(service.find(1L, VerificationPurpose.UPDATE_PASSWORD, code)).isEmpty();
+    }
+
+    @Test
+    void storesOnlyHashOfCode() {
+        String code = service.issue(1L, VerificationPurpose.VIEW_PASSWORD);
+
+        assertThat(stored).hasSize(1);
+        assertThat(stored.keySet().iterator().next()).hasSize(64).doesNotContain(code);
+    }
+
+    @Test
+    void resetCodeIsFoundWithoutUser() {
+        String code = service.issue(7L, VerificationPurpose.RESET_PASSWORD);
+
+        Optional<VerificationCode> found = service.find(null, VerificationPurpose.RESET_PASSWORD, code);
+        assertThat(found).isPresent();
+        assertThat(found.get().getUserId()).isEqualTo(7L);
+    }
+
+    @Test
+    void blankCodeNeverMatches() {
+        service.issue(1L, VerificationPurpose.VIEW_PASSWORD);
+
+        assertThat(service.find(1L, VerificationPurpose.VIEW_PASSWORD, " ")).isEmpty();
+        assertThat(service.find(1L, VerificationPurpose.VIEW_PASSWORD, null)).isEmpty();
+    }
+}
@@ -0,0 +1,112 @@
+package com.project.Trinity.Service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class ViewCountBufferTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private MostViewedCache mostViewedCache;
+    private ViewCountBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        mostViewedCache = mock(MostViewedCache.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        buffer = new ViewCountBuffer(jdbcTemplate, transactionTemplate, mostViewedCache);
+        ReflectionTestUtils.setField(buffer, "maxPending", 10_000);
+        ReflectionTestUtils.setField(buffer, "batchSize", 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.flushOnShutdown();
+    }
+
+    @Test
+    void viewsOfTheSamePasswordAreWrittenAsOneIncrement() {
+        buffer.record(2L, 7L);
+        buffer.record(1L, 7L);
+        buffer.record(2L, 7L);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+
+        buffer.flush();
+
+        List<Object[]> counters = counterRows();
+        assertThat(counters).extracting(row -> row[2]).containsExactly(1L, 2L); // passwordId sırasıyla
+        assertThat(counters).extracting(row -> row[0]).containsExactly(1L, 2L);
+        verify(mostViewedCache).onViewsFlushed(7L, 2L, 2L);
+    }
+
+    @Test
+    void failedWriteIsRequeuedAndMergedWithNewViews() {
+        doThrow(new IllegalStateException("db down")).doReturn(new int[0])
+                .when(jdbcTemplate).batchUpdate(contains("view_count"), anyList());
+        buffer.record(1L, 7L);
+        buffer.record(1L, 7L);
+
+        buffer.flush();
+        verify(mostViewedCache, never()).onViewsFlushed(any(), any(), anyLong());
+
+        buffer.record(1L, 7L);
+        buffer.flush();
+        verify(mostViewedCache).onViewsFlushed(7L, 1L, 3L);
+    }
+
+    @Test
+    void reachingMaxPendingFlushesOnTheBackgroundThread() throws Exception {
+        ReflectionTestUtils.setField(buffer, "maxPending", 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> writer = new CompletableFuture<>();
+        doAnswer(invocation -> {
+            writer.complete(Thread.currentThread().getName());
+            release.await(5, TimeUnit.SECONDS); // Yavaş veritabanı
+            return new int[0];
+        }).when(jdbcTemplate).batchUpdate(contains("view_count"), anyList());
+
+        buffer.record(1L, 7L);
+        buffer.record(2L, 7L); // Eşik aşıldı; çağıran thread yazmayı beklememeli
+
+        assertThat(writer.get(5, TimeUnit.SECONDS)).isEqualTo("view-count-flush");
+        release.countDown();
+        verify(mostViewedCache, timeout(5000)).onViewsFlushed(7L, 2L, 1L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> counterRows() {
+        ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("view_count"), args.capture());
+        return args.getValue();
+    }
+}
@@ -0,0 +1,61 @@
+package com.project.Trinity.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void readsQuotedFieldsWithSeparatorsAndEscapedQuotes() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,\"b,c\",\"d \"\"e\"\"\",\n"));
+
+        assertThat(reader.readRecord()).containsExactly("a", "b,c", "d \"e\"", "");
+        assertThat(reader.readRecord()).isNull();
+    }
+
+    @Test
+    void keepsEmbeddedNewlinesAndReportsRecordStartLine() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("h1,h2\r\n\"çok\r\nsatırlı\",x\r\n\r\nson,y"));
+
+        assertThat(reader.readRecord()).containsExactly("h1", "h2");
+        assertThat(reader.readRecord()).containsExactly("çok\r\nsatırlı", "x");
+        assertThat(reader.getRecordLine()).isEqualTo(2);
+        assertThat(reader.readRecord()).containsExactly("son", "y");
+        assertThat(reader.getRecordLine()).isEqualTo(5);
+        assertThat(reader.readRecord()).isNull();
+    }
+
+    @Test
+    void skipsLeadingByteOrderMark() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("\uFEFFtitle,password\n"));
+
+        assertThat(reader.readRecord()).containsExactly("title", "password");
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        CsvReader reader = new CsvReader(new StringReader("a,\"açık\n"));
+
+        assertThatThrownBy(reader::readRecord)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Satır 1");
+    }
+
+    @Test
+    void writerOutputReadsBackUnchanged() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvWriter writer = new CsvWriter(out);
+        List<String> record = List.of("düz", "virgül,li", "tırnak \"x\"", "satır\nsonu");
+        writer.writeRecord(record.toArray(String[]::new));
+        writer.flush();
+
+        assertThat(new CsvReader(new StringReader(out.toString())).readRecord()).isEqualTo(record);
+    }
+}
@@ -0,0 +1,91 @@
+package com.project.Trinity.Util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EncryptionUtilTest {
+
+    private static final String KEY = Base64.getEncoder().encodeToString(new byte[16]);
+    private static final String OLD_KEY = Base64.getEncoder().encodeToString("0123456789abcdef".getBytes(StandardCharsets.US_ASCII));
+
+    private EncryptionUtil encryptionUtil;
+
+    @BeforeEach
+    void setUp() {
+        encryptionUtil = newUtil(KEY, "2", "1:" + OLD_KEY, "1");
+    }
+
+    private static EncryptionUtil newUtil(String secretKey, String keyId, String previousKeys, String legacyKeyId) {
+        EncryptionUtil util = new EncryptionUtil();
+        ReflectionTestUtils.setField(util, "SECRET_KEY", secretKey);
+        ReflectionTestUtils.setField(util, "keyId", keyId);
+        ReflectionTestUtils.setField(util, "previousKeys", previousKeys);
+        ReflectionTestUtils.setField(util, "legacyKeyId", legacyKeyId);
+        util.init();
+        return util;
+    }
+
+    @Test
+    void roundTripUsesVersionedEnvelopeWithFreshNonce() throws Exception {
+        String first = encryptionUtil.encrypt("gizli-şifre");
+        String second = encryptionUtil.encrypt("gizli-şifre");
+
+        assertThat(first).startsWith("v1:");
+        assertThat(first).isNotEqualTo(second);
+        assertThat(encryptionUtil.decrypt(first)).isEqualTo("gizli-şifre");
+        assertThat(encryptionUtil.needsReencryption(first)).isFalse();
+    }
+
+    @Test
+    void decryptsLegacyEcbValuesWithLegacyKey() throws Exception {
+        Cipher ecb = Cipher.getInstance("AES");
+        ecb.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(Base64.getDecoder().decode(OLD_KEY), "AES"));
+        String legacy = Base64.getEncoder().encodeToString(ecb.doFinal("eski".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(encryptionUtil.decrypt(legacy)).isEqualTo("eski");
+        assertThat(encryptionUtil.needsReencryption(legacy)).isTrue();
+    }
+
+    @Test
+    void decryptsValuesOfPreviousKeyAndFlagsThemForReencryption() throws Exception {
+        String underOldKey = newUtil(OLD_KEY, "1", "", "").encrypt("döndürülecek");
+
+        assertThat(encryptionUtil.decrypt(underOldKey)).isEqualTo("döndürülecek");
+        assertThat(encryptionUtil.needsReencryption(underOldKey)).isTrue();
+    }
+
+    @Test
+    void rejectsTamperedCiphertext() throws Exception {
+        byte[] envelope = Base64.getDecoder().decode(encryptionUtil.encrypt("değer").substring(3));
+        envelope[envelope.length - 1] ^= 1;
+
+        assertThatThrownBy(() -> encryptionUtil.decrypt("v1:" + Base64.getEncoder().encodeToString(envelope)))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void rejectsTamperedHeaderBecauseItIsAuthenticated() throws Exception {
+        // kid "2" -> "1": başlık AAD olduğu için eski anahtarla da doğrulanamaz
+        byte[] envelope = Base64.getDecoder().decode(encryptionUtil.encrypt("değer").substring(3));
+        envelope[2] = '1';
+
+        assertThatThrownBy(() -> encryptionUtil.decrypt("v1:" + Base64.getEncoder().encodeToString(envelope)))
+                .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void rejectsUnknownKeyId() throws Exception {
+        String foreign = newUtil(KEY, "9", "", "").encrypt("değer");
+
+        assertThatThrownBy(() -> encryptionUtil.decrypt(foreign)).isInstanceOf(RuntimeException.class);
+    }
+}
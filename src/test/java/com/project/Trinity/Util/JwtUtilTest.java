@@ -0,0 +1,133 @@
+package com.project.Trinity.Util;
+
+import com.project.Trinity.Entity.Role;
+import com.project.Trinity.Entity.Status;
+import com.project.Trinity.Entity.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+
+    private static final byte[] KEY = "mevcut-imza-anahtari-32-bayt-uzun".getBytes();
+    private static final byte[] OLD_KEY = "eski-imza-anahtari-en-az-32-bayt!".getBytes();
+
+    private JwtUtil jwtUtil;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = newUtil(KEY, "2", "1:" + Base64.getEncoder().encodeToString(OLD_KEY));
+        user = new User();
+        user.setId(7L);
+        user.setUsername("ayse");
+        user.setRole(Role.USER);
+        user.setStatus(Status.ACTIVE);
+    }
+
+    private static JwtUtil newUtil(byte[] secretKey, String keyId, String previousKeys) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secretKey", Base64.getEncoder().encodeToString(secretKey));
+        ReflectionTestUtils.setField(util, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(util, "keyId", keyId);
+        ReflectionTestUtils.setField(util, "previousKeys", previousKeys);
+        util.init();
+        return util;
+    }
+
+    @Test
+    void newTokensCarryCurrentKeyIdAndVerify() {
+        String token = jwtUtil.generateToken(user);
+
+        assertThat(Jwts.parser().verifyWith(Keys.hmacShaKeyFor(KEY)).build().parseSignedClaims(token).getHeader().getKeyId())
+                .isEqualTo("2");
+        assertThat(jwtUtil.extractUsername(token)).isEqualTo("ayse");
+    }
+
+    @Test
+    void tokensSignedWithPreviousKeyStillVerifyAfterRotation() {
+        String oldToken = newUtil(OLD_KEY, "1", "").generateToken(user);
+
+        assertThat(jwtUtil.extractUsername(oldToken)).isEqualTo("ayse");
+    }
+
+    @Test
+    void tokensWithoutKeyIdAreVerifiedWithCurrentKey() {
+        String legacy = Jwts.builder().subject("ayse").expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(KEY)).compact();
+
+        assertThat(jwtUtil.extractUsername(legacy)).isEqualTo("ayse");
+    }
+
+    @Test
+    void unknownKeyIdOrWrongKeyIsRejected() {
+        String unknownKid = newUtil(OLD_KEY, "9", "").generateToken(user);
+        String wrongKey = newUtil(OLD_KEY, "2", "").generateToken(user);
+
+        assertThatThrownBy(() -> jwtUtil.extractUsername(unknownKid)).isInstanceOf(UnsupportedJwtException.class);
+        assertThatThrownBy(() -> jwtUtil.extractUsername(wrongKey)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void validateTokenExposesSubjectRolesAndExpiry() {
+        VerifiedToken verified = jwtUtil.validateToken(jwtUtil.generateToken(user));
+
+        assertThat(verified.getSubject()).isEqualTo("ayse");
+        assertThat(verified.getRoles()).containsExactly("USER");
+        assertThat(verified.getExpiration()).isAfter(new Date());
+    }
+
+    @Test
+    void validateTokenRejectsExpiredAndTamperedTokens() {
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", -1_000L);
+        String expired = jwtUtil.generateToken(user);
+        ReflectionTestUtils.setField(jwtUtil, "jwtExpiration", 60_000L);
+        String token = jwtUtil.generateToken(user);
+        String tampered = token.substring(0, token.lastIndexOf('.') + 1) + "AAAA" + token.substring(token.lastIndexOf('.') + 5);
+
+        assertThatThrownBy(() -> jwtUtil.validateToken(expired)).isInstanceOf(ExpiredJwtException.class);
+        assertThatThrownBy(() -> jwtUtil.validateToken(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void userTokensEmbedIdentityRoleStatusAndMillisecondIssueTime() {
+        long before = System.currentTimeMillis();
+        VerifiedToken verified = jwtUtil.validateToken(jwtUtil.generateToken(user));
+
+        assertThat(verified.getUserId()).isEqualTo(7L);
+        assertThat(verified.getRole()).isEqualTo("USER");
+        assertThat(verified.getStatus()).isEqualTo("ACTIVE");
+        assertThat(verified.getIssuedAtMillis()).isBetween(before, System.currentTimeMillis());
+    }
+
+    @Test
+    void tokensWithoutEmbeddedClaimsFallBackToSecondIssueTime() {
+        Date issuedAt = new Date(1_700_000_000_000L);
+        String legacy = Jwts.builder().header().keyId("2").and().subject("ayse").issuedAt(issuedAt)
+                .expiration(new Date(System.currentTimeMillis() + 60_000)).signWith(Keys.hmacShaKeyFor(KEY)).compact();
+
+        VerifiedToken verified = jwtUtil.validateToken(legacy);
+
+        assertThat(verified.getUserId()).isNull();
+        assertThat(verified.getRole()).isNull();
+        assertThat(verified.getIssuedAtMillis()).isEqualTo(issuedAt.getTime());
+    }
+
+    @Test
+    void malformedPreviousKeysFailAtStartup() {
+        assertThatThrownBy(() -> newUtil(KEY, "2", "1"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("jwt.previous-keys");
+    }
+}
@@ -0,0 +1,39 @@
+package com.project.Trinity.Util;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PassphraseCipherTest {
+
+    @Test
+    void roundTripsWithSamePassphraseInNewInstance() throws GeneralSecurityException {
+        String encrypted = new PassphraseCipher("uzun-bir-dışa-aktarma-parolası").encrypt("kasa şifresi");
+
+        assertThat(PassphraseCipher.isEncrypted(encrypted)).isTrue();
+        assertThat(new PassphraseCipher("uzun-bir-dışa-aktarma-parolası").decrypt(encrypted)).isEqualTo("kasa şifresi");
+    }
+
+    @Test
+    void rejectsWrongPassphrase() throws GeneralSecurityException {
+        String encrypted = new PassphraseCipher("doğru-parola-12345").encrypt("kasa şifresi");
+
+        assertThatThrownBy(() -> new PassphraseCipher("yanlış-parola-12345").decrypt(encrypted))
+                .isInstanceOf(GeneralSecurityException.class);
+    }
+
+    @Test
+    void rejectsShortPassphrase() {
+        assertThatThrownBy(() -> new PassphraseCipher("kısa"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsValuesWithoutPrefix() {
+        assertThatThrownBy(() -> new PassphraseCipher("doğru-parola-12345").decrypt("düz metin"))
+                .isInstanceOf(GeneralSecurityException.class);
+    }
+}